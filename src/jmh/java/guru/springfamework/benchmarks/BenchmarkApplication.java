@@ -0,0 +1,58 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.Spring5MvcRestApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application on its embedded H2 database, without a web server unless asked for,
+ * and seeds it with synthetic customers for the persistence benchmarks.
+ */
+final class BenchmarkApplication {
+
+    static final long FIRST_SEEDED_ID = 1_000_000L;
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int customers) {
+        return start(customers, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(int customers, WebApplicationType webApplicationType,
+                                                String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .web(webApplicationType)
+                .properties("logging.level.root=WARN", "spring.main.banner-mode=off")
+                .properties(properties)
+                .run();
+
+        seedCustomers(context.getBean(JdbcTemplate.class), customers);
+        return context;
+    }
+
+    /**
+     * Inserts rows with ids from {@link #FIRST_SEEDED_ID} upwards, clear of the ids the
+     * customer sequence hands out to the bootstrap data.
+     */
+    private static void seedCustomers(JdbcTemplate jdbcTemplate, int customers) {
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+
+        for (int i = 0; i < customers; i++) {
+            batch.add(new Object[]{FIRST_SEEDED_ID + i, "First" + i, "Last" + i});
+
+            if (batch.size() == SEED_BATCH_SIZE || i == customers - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into customer (id, first_name, last_name, version) values (?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.domain.PooledSequenceGenerator;
+import guru.springfamework.services.CustomerService;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer insert throughput by id allocation size. An allocation size of 1 costs a sequence
+ * round trip per row, like the old IDENTITY mapping; larger sizes reserve ids in blocks.
+ * H2 runs as a TCP server on localhost so every statement pays a real round trip, as it would
+ * against a networked database. Scores are inserted customers per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class CustomerCreateBenchmark {
+
+    private static final int BULK_SIZE = 500;
+    private static final String TCP_PORT = "9193";
+
+    @Param({"1", "50", "500"})
+    public int allocationSize;
+
+    private Server databaseServer;
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private List<CustomerDTO> bulk;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        databaseServer = Server.createTcpServer("-tcpPort", TCP_PORT).start();
+        context = BenchmarkApplication.start(0, WebApplicationType.NONE,
+                "spring.datasource.url=jdbc:h2:tcp://localhost:" + TCP_PORT + "/mem:create-benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties." + PooledSequenceGenerator.ALLOCATION_SIZE_SETTING + "=" + allocationSize);
+        customerService = context.getBean(CustomerService.class);
+
+        bulk = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            bulk.add(customerDTO(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        databaseServer.stop();
+    }
+
+    @Benchmark
+    public CustomerDTO createNewCustomer() {
+        return customerService.createNewCustomer(customerDTO(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<CustomerDTO> createNewCustomers() {
+        return customerService.createNewCustomers(bulk);
+    }
+
+    private static CustomerDTO customerDTO(int i) {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("First" + i);
+        customerDTO.setLastName("Last" + i);
+        return customerDTO;
+    }
+}
@@ -0,0 +1,89 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.CustomerServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerService read paths against an embedded H2 database of 10k, 100k and 1M customers.
+ * getCustomerById picks a random id per call, so at larger sizes most calls miss the cache.
+ * searchCustomers looks up a random seeded last name, which also prefix-matches its tens;
+ * searchCustomersCommonName looks up the first name prefix every seeded customer shares.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class CustomerServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(customers);
+        customerService = context.getBean(CustomerService.class);
+        // the seed rows are inserted after startup, behind the search index's back
+        context.getBean(CustomerServiceImpl.class).buildSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDTO> getCustomers() {
+        return customerService.getCustomers();
+    }
+
+    @Benchmark
+    public CustomerListDTO getCustomerPageFirst() {
+        return customerService.getCustomerPage(null, 100);
+    }
+
+    @Benchmark
+    public CustomerListDTO getCustomerPageLast() {
+        return customerService.getCustomerPage(BenchmarkApplication.FIRST_SEEDED_ID + customers - 101, 100);
+    }
+
+    @Benchmark
+    public CustomerDTO getCustomerById() {
+        return customerService.getCustomerById(
+                BenchmarkApplication.FIRST_SEEDED_ID + ThreadLocalRandom.current().nextInt(customers));
+    }
+
+    @Benchmark
+    public CustomerListDTO searchCustomers() {
+        return customerService.searchCustomers("last" + ThreadLocalRandom.current().nextInt(customers), 0, 20);
+    }
+
+    @Benchmark
+    public CustomerListDTO searchCustomersCommonName() {
+        return customerService.searchCustomers("first", 0, 20);
+    }
+}
@@ -0,0 +1,99 @@
+package guru.springfamework.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.domain.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list payloads, the last step of every list response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CustomerMapper customerMapper = CustomerMapper.INSTANCE;
+    private List<Customer> customers;
+    private CustomerListDTO customerListDTO;
+    private CategoryListDTO categoryListDTO;
+
+    @Setup
+    public void setUp() {
+        customers = new ArrayList<>(size);
+        List<CustomerDTO> customerDTOS = new ArrayList<>(size);
+        List<CategoryDTO> categories = new ArrayList<>(size);
+
+        for (int i = 1; i <= size; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstName("First" + i);
+            customerDTO.setLastName("Last" + i);
+            customerDTO.setId((long) i);
+            customerDTOS.add(customerDTO);
+
+            Customer customer = new Customer();
+            customer.setId((long) i);
+            customer.setFirstName("First" + i);
+            customer.setLastName("Last" + i);
+            customers.add(customer);
+
+            CategoryDTO categoryDTO = new CategoryDTO();
+            categoryDTO.setId((long) i);
+            categoryDTO.setName("Category" + i);
+            categories.add(categoryDTO);
+        }
+
+        customerListDTO = new CustomerListDTO(customerDTOS, CustomerController.BASE_URL + "?after=" + size + "&limit=" + size);
+        categoryListDTO = new CategoryListDTO(categories);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerListDTO);
+    }
+
+    /**
+     * The full per-customer cost of a list response; run with {@code -prof gc} for bytes per op.
+     */
+    @Benchmark
+    public byte[] mapAndSerializeCustomerList() throws JsonProcessingException {
+        List<CustomerDTO> customerDTOS = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            customerDTOS.add(customerMapper.customerToCustomerDTO(customer));
+        }
+        return objectMapper.writeValueAsBytes(new CustomerListDTO(customerDTOS, null));
+    }
+
+    @Benchmark
+    public byte[] serializeCategoryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categoryListDTO);
+    }
+}
@@ -0,0 +1,70 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.api.v1.mapper.CategoryMapper;
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the generated MapStruct conversions on their own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final CustomerMapper customerMapper = CustomerMapper.INSTANCE;
+    private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    private Customer customer;
+    private CustomerDTO customerDTO;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(42L);
+        customer.setFirstName("Akash");
+        customer.setLastName("Jagdale");
+        customer.setVersion(3L);
+
+        customerDTO = customerMapper.customerToCustomerDTO(customer);
+
+        category = new Category();
+        category.setId(7L);
+        category.setName("Fruits");
+        category.setVersion(1L);
+    }
+
+    @Benchmark
+    public CustomerDTO customerToCustomerDTO() {
+        return customerMapper.customerToCustomerDTO(customer);
+    }
+
+    @Benchmark
+    public Customer customerDTOToCustomer() {
+        return customerMapper.customerDTOToCustomer(customerDTO);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToCategoryDTO() {
+        return categoryMapper.categoryToCategoryDTO(category);
+    }
+}
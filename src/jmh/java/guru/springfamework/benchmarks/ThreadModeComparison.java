@@ -0,0 +1,146 @@
+package guru.springfamework.benchmarks;
+
+import guru.springfamework.config.VirtualThreadConfig;
+import guru.springfamework.config.VirtualThreads;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against the application in platform-thread and virtual-thread mode.
+ * Each client repeatedly fetches a random seeded customer and the category list for a fixed
+ * duration; throughput, latency percentiles and errors are printed per mode and client count.
+ *
+ * <p>Not a JMH benchmark: run it on a Java 21 runtime through the {@code compare-thread-modes}
+ * execution of the {@code benchmark} profile (see README).
+ */
+public final class ThreadModeComparison {
+
+    private static final int CUSTOMERS = 100_000;
+    private static final int[] DEFAULT_CLIENTS = {1_000, 2_500, 5_000, 10_000};
+    private static final long WARMUP_SECONDS = 10;
+    private static final long MEASURE_SECONDS = 30;
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("Run the comparison on Java 21 or later, found "
+                    + System.getProperty("java.version"));
+        }
+
+        int[] clientCounts = args.length == 0 ? DEFAULT_CLIENTS : parseClientCounts(args);
+
+        System.out.printf("%-9s %8s %12s %10s %10s %10s %10s%n",
+                "mode", "clients", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (boolean virtual : new boolean[]{false, true}) {
+            for (int clients : clientCounts) {
+                run(virtual, clients);
+            }
+        }
+    }
+
+    private static void run(boolean virtual, int clients) throws Exception {
+        ConfigurableApplicationContext context = BenchmarkApplication.start(CUSTOMERS, WebApplicationType.SERVLET,
+                "server.port=0",
+                VirtualThreadConfig.ENABLED_PROPERTY + "=" + virtual,
+                "server.tomcat.max-connections=" + (clients + 1_000),
+                "server.tomcat.accept-count=" + clients,
+                "app.database-executor.queue-capacity=" + 2 * clients);
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            Recorder recorder = new Recorder(TimeUnit.SECONDS.toNanos(60), 3);
+            LongAdder errors = new LongAdder();
+
+            // Clients always run on virtual threads so only the server side differs between modes
+            ExecutorService clientExecutor = VirtualThreads.newThreadPerTaskExecutor("client-");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS + MEASURE_SECONDS);
+            for (int i = 0; i < clients; i++) {
+                clientExecutor.execute(() -> clientLoop(baseUrl, deadline, recorder, errors));
+            }
+
+            TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+            recorder.reset();
+            errors.reset();
+            TimeUnit.SECONDS.sleep(MEASURE_SECONDS);
+            Histogram histogram = recorder.getIntervalHistogram();
+            long failed = errors.sum();
+
+            clientExecutor.shutdown();
+            clientExecutor.awaitTermination(1, TimeUnit.MINUTES);
+
+            System.out.printf("%-9s %8d %12.0f %10.2f %10.2f %10.2f %10d%n",
+                    virtual ? "virtual" : "platform", clients,
+                    histogram.getTotalCount() / (double) MEASURE_SECONDS,
+                    histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getMaxValue() / 1e6,
+                    failed);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void clientLoop(String baseUrl, long deadline, Recorder recorder, LongAdder errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadline) {
+            String path = random.nextInt(4) == 0
+                    ? "/api/v1/categories"
+                    : "/api/v1/customers/" + (BenchmarkApplication.FIRST_SEEDED_ID + random.nextInt(CUSTOMERS));
+
+            long start = System.nanoTime();
+            if (get(baseUrl + path)) {
+                recorder.recordValue(System.nanoTime() - start);
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    private static boolean get(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(30_000);
+            connection.setReadTimeout(30_000);
+
+            boolean ok = connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+            // Drain the body so the keep-alive connection goes back to the pool
+            try (InputStream body = ok ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    byte[] buffer = new byte[8192];
+                    while (body.read(buffer) != -1) {
+                        // discard
+                    }
+                }
+            }
+            return ok;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int[] parseClientCounts(String[] args) {
+        List<Integer> counts = new ArrayList<>();
+        for (String arg : args) {
+            for (String count : arg.split(",")) {
+                counts.add(Integer.parseInt(count.trim()));
+            }
+        }
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -1,6 +1,7 @@
 package guru.springfamework.api.v1.mapper;
 
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.SparseCustomerDTO;
 import guru.springfamework.domain.Customer;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
@@ -11,5 +12,7 @@ public interface CustomerMapper {
 
     CustomerDTO customerToCustomerDTO(Customer customer);
 
+    SparseCustomerDTO customerToSparseCustomerDTO(Customer customer);
+
     Customer customerDTOToCustomer(CustomerDTO customerDTO);
 }
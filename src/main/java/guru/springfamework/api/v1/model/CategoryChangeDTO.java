@@ -0,0 +1,17 @@
+package guru.springfamework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A category change on the change feed. {@code type} is created, updated or deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryChangeDTO {
+    private String type;
+    private Long id;
+    private String name;
+}
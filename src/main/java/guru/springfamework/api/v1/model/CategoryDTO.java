@@ -1,5 +1,6 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -9,4 +10,7 @@ import lombok.Data;
 public class CategoryDTO {
     private Long id;
     private String name;
+
+    @JsonIgnore
+    private Long version;
 }
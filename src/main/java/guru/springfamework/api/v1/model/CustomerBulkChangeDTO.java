@@ -0,0 +1,20 @@
+package guru.springfamework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects the customers of a bulk patch or delete, either by {@code ids} or by a {@code filter}
+ * whose non-null names must match exactly, and for a patch the names to write.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBulkChangeDTO {
+    private List<Long> ids;
+    private CustomerDTO filter;
+    private CustomerDTO patch;
+}
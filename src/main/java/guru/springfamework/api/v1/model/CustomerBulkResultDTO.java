@@ -0,0 +1,28 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a bulk patch or delete did to one customer; a patched customer comes with its new state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBulkResultDTO {
+
+    public enum Outcome {
+        @JsonProperty("updated") UPDATED,
+        @JsonProperty("deleted") DELETED,
+        @JsonProperty("not_found") NOT_FOUND
+    }
+
+    private Long id;
+    private Outcome outcome;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CustomerDTO customer;
+}
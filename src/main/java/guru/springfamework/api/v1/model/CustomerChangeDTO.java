@@ -0,0 +1,19 @@
+package guru.springfamework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A customer change on the change feed. {@code type} is created, updated, patched or deleted; a
+ * patched change carries only the names it wrote, so a {@code null} name there is unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangeDTO {
+    private String type;
+    private Long id;
+    private String firstName;
+    private String lastName;
+}
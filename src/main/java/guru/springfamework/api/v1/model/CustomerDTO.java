@@ -1,13 +1,36 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import guru.springfamework.controllers.v1.CustomerController;
 import lombok.Data;
 
 @Data
+@JsonIgnoreProperties(value = "customer_url", allowGetters = true)
 public class CustomerDTO {
     private String firstName;
     private String lastName;
 
+    /**
+     * Written as {@code customer_url} by {@link CustomerUrlSerializer}, straight into the JSON output.
+     */
     @JsonProperty("customer_url")
-    private String customerUrl;
+    @JsonSerialize(using = CustomerUrlSerializer.class)
+    private Long id;
+
+    /**
+     * Entity version, carried in the ETag / If-Match headers rather than the body.
+     */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Convenience for code outside the JSON path; allocates a new String on every call.
+     */
+    @JsonIgnore
+    public String getCustomerUrl() {
+        return id == null ? null : CustomerController.BASE_URL + "/" + id;
+    }
 }
@@ -0,0 +1,69 @@
+package guru.springfamework.api.v1.model;
+
+import guru.springfamework.services.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Customer fields a client can select with {@code fields=}, by their JSON name, and the entity
+ * attribute each one is read from.
+ */
+public enum CustomerField {
+
+    FIRST_NAME("firstName", "firstName"),
+    LAST_NAME("lastName", "lastName"),
+    CUSTOMER_URL("customer_url", "id");
+
+    private final String jsonName;
+    private final String attribute;
+
+    CustomerField(String jsonName, String attribute) {
+        this.jsonName = jsonName;
+        this.attribute = attribute;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma separated list of JSON names; {@code null} or blank selects every field and
+     * yields {@code null}.
+     */
+    public static Set<CustomerField> parse(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return null;
+        }
+
+        Set<CustomerField> selected = EnumSet.noneOf(CustomerField.class);
+        for (String name : fields.split(",")) {
+            selected.add(forJsonName(name.trim()));
+        }
+        return selected;
+    }
+
+    private static CustomerField forJsonName(String jsonName) {
+        for (CustomerField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unknown customer field: " + jsonName);
+    }
+
+    public static String format(Set<CustomerField> fields) {
+        StringBuilder names = new StringBuilder();
+        for (CustomerField field : fields) {
+            if (names.length() > 0) {
+                names.append(',');
+            }
+            names.append(field.jsonName);
+        }
+        return names.toString();
+    }
+}
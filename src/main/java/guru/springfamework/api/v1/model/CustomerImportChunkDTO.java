@@ -0,0 +1,27 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One transactional chunk of an import: the file lines it covered and how many rows it kept.
+ */
+@Data
+@NoArgsConstructor
+public class CustomerImportChunkDTO {
+    private int chunk;
+
+    @JsonProperty("first_line")
+    private long firstLine;
+
+    @JsonProperty("last_line")
+    private long lastLine;
+
+    private int accepted;
+    private int rejected;
+    private List<CustomerImportErrorDTO> errors = new ArrayList<>();
+}
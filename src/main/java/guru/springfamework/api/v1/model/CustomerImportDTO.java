@@ -0,0 +1,23 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: totals, one entry per committed chunk, and the error that stopped the
+ * import early if the file turned out to be unreadable part way through.
+ */
+@Data
+@NoArgsConstructor
+public class CustomerImportDTO {
+    private long accepted;
+    private long rejected;
+    private List<CustomerImportChunkDTO> chunks = new ArrayList<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+}
@@ -0,0 +1,16 @@
+package guru.springfamework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Why the row starting on {@code line} was rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportErrorDTO {
+    private long line;
+    private String message;
+}
@@ -1,5 +1,6 @@
 package guru.springfamework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +12,7 @@ import java.util.List;
 @AllArgsConstructor
 public class CustomerListDTO {
     List<CustomerDTO> customers;
+
+    @JsonProperty("next_page_url")
+    String nextPageUrl;
 }
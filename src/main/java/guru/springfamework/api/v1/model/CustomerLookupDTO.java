@@ -0,0 +1,20 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a multi-get: the requested id, whether it exists, and the customer when it does.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLookupDTO {
+    private Long id;
+    private boolean found;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CustomerDTO customer;
+}
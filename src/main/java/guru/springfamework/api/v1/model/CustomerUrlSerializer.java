@@ -0,0 +1,69 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import guru.springfamework.controllers.v1.CustomerController;
+
+import java.io.IOException;
+
+/**
+ * Renders a customer id as its resource URL without building an intermediate String: the
+ * base URL and the id's digits are written into a char array sized for this id and handed
+ * to the generator. The array is local rather than per-thread, since on virtual threads a
+ * per-thread buffer would be allocated for every request anyway.
+ */
+public class CustomerUrlSerializer extends StdSerializer<Long> {
+
+    private static final char[] PREFIX = (CustomerController.BASE_URL + "/").toCharArray();
+
+    public CustomerUrlSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long id, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[PREFIX.length + digitCount(id)];
+        System.arraycopy(PREFIX, 0, buffer, 0, PREFIX.length);
+        int length = appendDigits(id, buffer, PREFIX.length);
+
+        generator.writeString(buffer, 0, length);
+    }
+
+    /**
+     * Writes the decimal digits of {@code value} at {@code offset} and returns the end position.
+     */
+    static int appendDigits(long value, char[] buffer, int offset) {
+        if (value == 0) {
+            buffer[offset] = '0';
+            return offset + 1;
+        }
+
+        int end = offset + digitCount(value);
+        int position = end;
+
+        // work on the negative value so Long.MIN_VALUE needs no special case
+        long remaining = value < 0 ? value : -value;
+        while (remaining != 0) {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        if (value < 0) {
+            buffer[--position] = '-';
+        }
+
+        return end;
+    }
+
+    private static int digitCount(long value) {
+        if (value == 0) {
+            return 1;
+        }
+
+        int count = value < 0 ? 1 : 0;
+        for (long remaining = value; remaining != 0; remaining /= 10) {
+            count++;
+        }
+        return count;
+    }
+}
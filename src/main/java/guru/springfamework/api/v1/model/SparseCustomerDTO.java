@@ -0,0 +1,15 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * A customer read with a {@code fields=} selection: fields outside the selection are null and
+ * left out of the JSON, unlike {@link CustomerDTO} which writes every field.
+ */
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseCustomerDTO extends CustomerDTO {
+}
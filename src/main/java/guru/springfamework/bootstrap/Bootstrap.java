@@ -4,25 +4,68 @@ import guru.springfamework.domain.Category;
 import guru.springfamework.domain.Customer;
 import guru.springfamework.repositories.CategoryRepository;
 import guru.springfamework.repositories.CustomerRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Seeds the database at startup. {@code app.seed.mode} picks the customers: {@code demo} (the
+ * three sample customers), {@code file} (bulk load {@code app.seed.file}, CSV or NDJSON),
+ * {@code synthetic} ({@code app.seed.synthetic-count} generated customers from
+ * {@code app.seed.synthetic-seed}) or {@code none}. Categories are always loaded.
+ */
 @Component
 public class Bootstrap implements CommandLineRunner {
 
     private CategoryRepository categoryRepository;
     private CustomerRepository customerRepository;
-
-    public Bootstrap(CategoryRepository categoryRepository, CustomerRepository customerRepository) {
+    private BulkCustomerLoader bulkCustomerLoader;
+
+    private final String seedMode;
+    private final String seedFile;
+    private final long syntheticCount;
+    private final long syntheticSeed;
+
+    public Bootstrap(CategoryRepository categoryRepository, CustomerRepository customerRepository,
+                     BulkCustomerLoader bulkCustomerLoader,
+                     @Value("${app.seed.mode}") String seedMode,
+                     @Value("${app.seed.file:}") String seedFile,
+                     @Value("${app.seed.synthetic-count}") long syntheticCount,
+                     @Value("${app.seed.synthetic-seed}") long syntheticSeed) {
         this.categoryRepository = categoryRepository;
         this.customerRepository = customerRepository;
+        this.bulkCustomerLoader = bulkCustomerLoader;
+        this.seedMode = seedMode;
+        this.seedFile = seedFile;
+        this.syntheticCount = syntheticCount;
+        this.syntheticSeed = syntheticSeed;
     }
 
     @Override
     public void run(String... args) throws Exception {
         loadCategories();
 
-        loadCustomers();
+        switch (seedMode) {
+            case "demo":
+                loadCustomers();
+                break;
+            case "file":
+                if (seedFile.isEmpty()) {
+                    throw new IllegalStateException("app.seed.mode=file needs app.seed.file");
+                }
+                bulkCustomerLoader.loadFile(Paths.get(seedFile));
+                break;
+            case "synthetic":
+                bulkCustomerLoader.generate(syntheticCount, syntheticSeed);
+                break;
+            case "none":
+                break;
+            default:
+                throw new IllegalStateException("Unknown app.seed.mode " + seedMode + ", expected demo, file, synthetic or none");
+        }
     }
 
     private void loadCustomers() {
@@ -39,9 +82,8 @@ public class Bootstrap implements CommandLineRunner {
         hp.setFirstName("Harry");
         hp.setLastName("Potter");
 
-        customerRepository.save(aj);
-        customerRepository.save(jd);
-        customerRepository.save(hp);
+        // one transaction, written as a single JDBC batch
+        customerRepository.saveAll(Arrays.asList(aj, jd, hp));
 
         System.out.println("Data Loaded = " + customerRepository.count());
     }
@@ -62,11 +104,7 @@ public class Bootstrap implements CommandLineRunner {
         Category nuts = new Category();
         nuts.setName("Nuts");
 
-        categoryRepository.save(fruits);
-        categoryRepository.save(dried);
-        categoryRepository.save(fresh);
-        categoryRepository.save(exotic);
-        categoryRepository.save(nuts);
+        categoryRepository.saveAll(Arrays.asList(fruits, dried, fresh, exotic, nuts));
 
         System.out.println("Data Loaded = " + categoryRepository.count());
     }
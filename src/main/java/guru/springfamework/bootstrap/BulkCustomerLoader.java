@@ -0,0 +1,178 @@
+package guru.springfamework.bootstrap;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.domain.PooledSequenceGenerator;
+import guru.springfamework.services.CustomerCsvReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Seeds large customer tables without going through JPA: rows are streamed from a CSV or NDJSON
+ * file, or generated from a fixed random seed, and written with JDBC batch inserts. Ids are
+ * reserved from {@code customer_seq} a pooled-lo block at a time, exactly as Hibernate does, so
+ * the application keeps inserting after the loaded rows without collisions.
+ */
+@Component
+public class BulkCustomerLoader {
+
+    static final String INSERT_CUSTOMER =
+            "insert into customer (id, first_name, last_name, version) values (?, ?, ?, 0)";
+
+    private static final String[] FIRST_NAMES = {
+            "Akash", "Jonny", "Harry", "Michael", "Fiona", "Sam", "Madeline", "Jesse", "Nate", "Ravi",
+            "Priya", "Olivia", "Liam", "Emma", "Noah", "Ava", "Lucas", "Mia", "Ethan", "Zoe"};
+    private static final String[] LAST_NAMES = {
+            "Jagdale", "Depp", "Potter", "Westen", "Glenanne", "Axe", "Porter", "Singh", "Patel", "Garcia",
+            "Smith", "Nguyen", "Kowalski", "Rossi", "Muller", "Tanaka", "Silva", "Okafor", "Larsen", "Cohen"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int allocationSize;
+    private final int batchSize;
+    private final long progressInterval;
+
+    private long nextId;
+    private long lastIdInBlock = -1;
+
+    public BulkCustomerLoader(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              @Value("${spring.jpa.properties." + PooledSequenceGenerator.ALLOCATION_SIZE_SETTING
+                                      + ":" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize,
+                              @Value("${app.seed.batch-size}") int batchSize,
+                              @Value("${app.seed.progress-interval}") long progressInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.allocationSize = allocationSize;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Loads {@code .csv} files through {@link CustomerCsvReader} and {@code .ndjson} / {@code .jsonl}
+     * files as one customer object per line. Unreadable CSV rows are skipped and counted.
+     */
+    public long loadFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             Batch batch = new Batch("Loaded", -1)) {
+            if (name.endsWith(".csv")) {
+                CustomerCsvReader csvReader = new CustomerCsvReader(reader);
+                for (CustomerCsvReader.Row row = csvReader.next(); row != null; row = csvReader.next()) {
+                    if (row.getCustomer() == null) {
+                        batch.skipped++;
+                    } else {
+                        batch.add(row.getCustomer().getFirstName(), row.getCustomer().getLastName());
+                    }
+                }
+            } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                MappingIterator<CustomerDTO> customers = objectMapper.readerFor(CustomerDTO.class).readValues(reader);
+                while (customers.hasNextValue()) {
+                    CustomerDTO customerDTO = customers.nextValue();
+                    batch.add(customerDTO.getFirstName(), customerDTO.getLastName());
+                }
+            } else {
+                throw new IllegalArgumentException("Seed file must be .csv, .ndjson or .jsonl: " + file);
+            }
+            return batch.total();
+        }
+    }
+
+    /**
+     * Inserts {@code count} customers with names drawn from {@code seed}; the same seed always
+     * produces the same sequence of names.
+     */
+    public long generate(long count, long seed) {
+        Random random = new Random(seed);
+
+        try (Batch batch = new Batch("Generated", count)) {
+            for (long i = 0; i < count; i++) {
+                batch.add(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            }
+            return batch.total();
+        }
+    }
+
+    private long nextId() {
+        if (nextId > lastIdInBlock) {
+            nextId = jdbcTemplate.queryForObject("select next value for customer_seq", Long.class);
+            lastIdInBlock = nextId + allocationSize - 1;
+        }
+        return nextId++;
+    }
+
+    /**
+     * Buffers rows into JDBC batches and reports progress every {@code progressInterval} rows.
+     */
+    private final class Batch implements AutoCloseable {
+
+        private final String verb;
+        private final long expected;
+        private final long startNanos = System.nanoTime();
+        private final List<Object[]> rows = new ArrayList<>(batchSize);
+
+        private long loaded;
+        private long skipped;
+        private long reported = -1;
+
+        private Batch(String verb, long expected) {
+            this.verb = verb;
+            this.expected = expected;
+        }
+
+        void add(String firstName, String lastName) {
+            rows.add(new Object[]{nextId(), firstName, lastName});
+            if (rows.size() == batchSize) {
+                flush();
+            }
+        }
+
+        long total() {
+            flush();
+            return loaded;
+        }
+
+        private void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            long before = loaded;
+            jdbcTemplate.batchUpdate(INSERT_CUSTOMER, rows);
+            loaded += rows.size();
+            rows.clear();
+
+            if (loaded / progressInterval != before / progressInterval) {
+                report();
+            }
+        }
+
+        private void report() {
+            reported = loaded;
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.println(String.format("%s %d%s customers (%.0f rows/s%s)",
+                    verb, loaded, expected < 0 ? "" : " / " + expected, loaded / Math.max(seconds, 1e-9),
+                    skipped == 0 ? "" : ", " + skipped + " rows skipped"));
+        }
+
+        @Override
+        public void close() {
+            flush();
+            if (reported != loaded) {
+                report();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package guru.springfamework.bootstrap;
+
+import guru.springfamework.domain.PooledSequenceGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Migration path for databases whose ids were not drawn from the pooled sequences: rows written
+ * under IDENTITY, by scripts, or with a different allocation size. Before anything else runs,
+ * each sequence is moved past the table's highest id and its increment set to the configured
+ * allocation size. It never moves a sequence backwards, so blocks already reserved stay unique.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SequenceAligner implements CommandLineRunner {
+
+    static final Map<String, String> SEQUENCES_BY_TABLE = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES_BY_TABLE.put("customer", "customer_seq");
+        SEQUENCES_BY_TABLE.put("category", "category_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int allocationSize;
+    private final boolean enabled;
+
+    public SequenceAligner(JdbcTemplate jdbcTemplate,
+                           @Value("${spring.jpa.properties." + PooledSequenceGenerator.ALLOCATION_SIZE_SETTING
+                                   + ":" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize,
+                           @Value("${app.id.align-sequences:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationSize = allocationSize;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+
+        SEQUENCES_BY_TABLE.forEach(this::align);
+    }
+
+    void align(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        Map<String, Object> state = jdbcTemplate.queryForMap(
+                "select current_value, increment from information_schema.sequences"
+                        + " where sequence_schema = schema() and sequence_name = ?",
+                sequence.toUpperCase(Locale.ROOT));
+
+        long increment = ((Number) state.get("INCREMENT")).longValue();
+        long nextValue = ((Number) state.get("CURRENT_VALUE")).longValue() + increment;
+
+        if (increment == allocationSize && nextValue > maxId) {
+            return;
+        }
+
+        long restartWith = Math.max(nextValue, maxId + 1);
+        jdbcTemplate.execute("alter sequence " + sequence
+                + " restart with " + restartWith + " increment by " + allocationSize);
+
+        System.out.println("Aligned " + sequence + ": restart with " + restartWith + ", increment by " + allocationSize);
+    }
+}
@@ -0,0 +1,46 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executor for the blocking database work behind the async controllers. Once its
+ * threads are busy and its queue is full, new work is rejected and answered with 503.
+ * Replaced by {@link VirtualThreadConfig} when virtual threads are enabled.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String DATABASE_EXECUTOR = "databaseExecutor";
+
+    @Bean(name = DATABASE_EXECUTOR)
+    @ConditionalOnProperty(name = VirtualThreadConfig.ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
+    public ThreadPoolTaskExecutor databaseExecutor(@Value("${app.database-executor.pool-size}") int poolSize,
+                                                   @Value("${app.database-executor.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("db-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Pool size, active threads, queue depth and completed task gauges for the database executor.
+     */
+    @Bean
+    @ConditionalOnProperty(name = VirtualThreadConfig.ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
+    public MeterBinder databaseExecutorMetrics(@Qualifier(DATABASE_EXECUTOR) ThreadPoolTaskExecutor databaseExecutor) {
+        return (MeterRegistry registry) -> new ExecutorServiceMetrics(
+                databaseExecutor.getThreadPoolExecutor(), DATABASE_EXECUTOR, Tags.empty()).bindTo(registry);
+    }
+}
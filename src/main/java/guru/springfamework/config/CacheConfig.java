@@ -0,0 +1,15 @@
+package guru.springfamework.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are backed by Caffeine; sizes, TTLs and stats recording are set through
+ * {@code spring.cache.caffeine.spec} in application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CUSTOMERS = "customers";
+}
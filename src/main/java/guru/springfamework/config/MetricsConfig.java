@@ -0,0 +1,26 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on service methods. Request timers, HikariCP, Hibernate and cache
+ * metrics are bound by Spring Boot; histograms and exposure are set in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String CUSTOMER_SERVICE_TIMER = "customer.service";
+    public static final String CATEGORY_SERVICE_TIMER = "category.service";
+    public static final String SINGLE_FLIGHT_COUNTER = "singleflight.calls";
+    public static final String CHANGE_FEED_SUBSCRIBERS = "changefeed.subscribers";
+    public static final String CHANGE_FEED_DROPPED = "changefeed.dropped";
+    public static final String CHANGE_FEED_STALLED = "changefeed.stalled";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,102 @@
+package guru.springfamework.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs Tomcat request handling and the database executor on virtual threads when
+ * {@code app.virtual-threads.enabled=true}. Requires a Java 21+ runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = VirtualThreadConfig.ENABLED_PROPERTY, havingValue = "true")
+public class VirtualThreadConfig {
+
+    public static final String ENABLED_PROPERTY = "app.virtual-threads.enabled";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("vt-");
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return factory -> factory.addConnectorCustomizers(connector ->
+                ((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(virtualThreadExecutor));
+    }
+
+    /**
+     * Virtual threads are unbounded, so a semaphore keeps the same in-flight limit as the
+     * platform pool plus its queue and the same 503 once it is reached. The semaphore parks
+     * without pinning the carrier thread.
+     */
+    @Bean(name = AsyncConfig.DATABASE_EXECUTOR)
+    public Executor databaseExecutor(ExecutorService virtualThreadExecutor,
+                                     @Value("${app.database-executor.pool-size}") int poolSize,
+                                     @Value("${app.database-executor.queue-capacity}") int queueCapacity) {
+        Semaphore permits = new Semaphore(poolSize + queueCapacity);
+
+        return new BoundedExecutor(virtualThreadExecutor, permits);
+    }
+
+    @Bean
+    public MeterBinder databaseExecutorMetrics(@Qualifier(AsyncConfig.DATABASE_EXECUTOR) Executor databaseExecutor) {
+        BoundedExecutor boundedExecutor = (BoundedExecutor) databaseExecutor;
+
+        return registry -> Gauge.builder("executor.active", boundedExecutor, BoundedExecutor::inFlight)
+                .description("The number of tasks running or waiting on the virtual-thread database executor")
+                .baseUnit("threads")
+                .tag("name", AsyncConfig.DATABASE_EXECUTOR)
+                .register(registry);
+    }
+
+    static class BoundedExecutor implements Executor {
+
+        private final Executor delegate;
+        private final Semaphore permits;
+        private final int maxInFlight;
+
+        BoundedExecutor(Executor delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+            this.maxInFlight = permits.availablePermits();
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Database executor limit of " + maxInFlight + " reached");
+            }
+
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        int inFlight() {
+            return maxInFlight - permits.availablePermits();
+        }
+    }
+}
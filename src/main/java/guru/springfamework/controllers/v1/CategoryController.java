@@ -1,37 +1,63 @@
 package guru.springfamework.controllers.v1;
 
 import guru.springfamework.api.v1.model.CategoryDTO;
-import guru.springfamework.api.v1.model.CategoryListDTO;
 import guru.springfamework.services.CategoryService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import java.util.Collections;
+
 @Controller
 @RequestMapping(CategoryController.BASE_URL)
 public class CategoryController {
 
     public static final String BASE_URL = "/api/v1/categories";
     private final CategoryService categoryService;
+    private final CategoryListBody categoryListBody;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CategoryListBody categoryListBody) {
         this.categoryService = categoryService;
+        this.categoryListBody = categoryListBody;
     }
 
+    /**
+     * Writes the precomputed body, gzipped when the client accepts it, so the request never reaches
+     * the database or Jackson; it stays synchronous.
+     */
     @GetMapping
-    public ResponseEntity<CategoryListDTO> getAllCategories() {
-        return new ResponseEntity<CategoryListDTO>(
-                new CategoryListDTO(categoryService.getAllCategories()),
-                HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CategoryListBody.Snapshot body = categoryListBody.get();
+        boolean gzip = CategoryListBody.acceptsGzip(acceptEncoding);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING));
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.setETag(gzip ? body.getGzipETag() : body.getETag());
+
+        return new ResponseEntity<byte[]>(gzip ? body.getGzip() : body.getJson(), headers, HttpStatus.OK);
     }
 
+    /**
+     * Served from the in-memory name index without touching the database, so it stays synchronous.
+     */
     @GetMapping("/{name}")
     public ResponseEntity<CategoryDTO> getCategoryByName(@PathVariable String name) {
+        CategoryDTO categoryDTO = categoryService.getCategoryByName(name);
+
         return new ResponseEntity<CategoryDTO>(
-                categoryService.getCategoryByName(name),
+                categoryDTO,
+                EntityTags.forVersion(categoryDTO.getVersion()),
                 HttpStatus.OK);
     }
 }
@@ -0,0 +1,140 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CategoryListDTO;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.services.CategoryService;
+import lombok.Getter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The GET /categories response body, serialized and gzipped once and then served as bytes until
+ * a category changes. A change only drops the body; the next request rebuilds it, so saving many
+ * categories at once costs one rebuild rather than one per category.
+ */
+@Component
+class CategoryListBody {
+
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    /**
+     * Bumped by every change, so a build that read the categories before the change does not
+     * replace the body the change asked for.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    CategoryListBody(CategoryService categoryService, ObjectMapper objectMapper) {
+        this.categoryService = categoryService;
+        this.objectMapper = objectMapper;
+    }
+
+    Snapshot get() {
+        Snapshot current = snapshot;
+        return current != null ? current : build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot build() {
+        buildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                return current;
+            }
+
+            long buildGeneration = generation.get();
+            Snapshot built = new Snapshot(serialize(new CategoryListDTO(categoryService.getAllCategories())));
+            if (generation.get() == buildGeneration) {
+                snapshot = built;
+            }
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private byte[] serialize(CategoryListDTO categoryListDTO) {
+        try {
+            return objectMapper.writeValueAsBytes(categoryListDTO);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize categories", e);
+        }
+    }
+
+    /**
+     * True when an Accept-Encoding header lists gzip (or *) without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One immutable rendering of the list: identity and gzip bodies, each with its own strong ETag
+     * since they are different representations.
+     */
+    @Getter
+    static final class Snapshot {
+
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String eTag;
+        private final String gzipETag;
+
+        Snapshot(byte[] json) {
+            String digest = DigestUtils.md5DigestAsHex(json);
+
+            this.json = json;
+            this.gzip = gzip(json);
+            this.eTag = "\"" + digest + "\"";
+            this.gzipETag = "\"" + digest + "-gzip\"";
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 2 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
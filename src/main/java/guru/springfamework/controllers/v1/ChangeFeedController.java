@@ -0,0 +1,39 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.services.ChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of customer and category changes, so clients can follow writes
+ * instead of polling the lists.
+ */
+@Controller
+@RequestMapping(ChangeFeedController.BASE_URL)
+public class ChangeFeedController {
+
+    public static final String BASE_URL = "/api/v1/changes";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Resumes after the {@code Last-Event-ID} an EventSource sends when it reconnects, or after
+     * the {@code after} parameter for clients that cannot set the header; neither means new
+     * changes only. An id this run of the feed did not issue gets a resync event.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+                                    @RequestParam(value = "after", required = false) String after) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -1,61 +1,187 @@
 package guru.springfamework.controllers.v1;
 
+import guru.springfamework.api.v1.model.CustomerBulkChangeDTO;
+import guru.springfamework.api.v1.model.CustomerBulkResultListDTO;
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerField;
 import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.api.v1.model.CustomerLookupListDTO;
+import guru.springfamework.config.AsyncConfig;
+import guru.springfamework.services.BadRequestException;
 import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.IdempotentRequestStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Handlers hand their service calls to the database executor and return immediately, releasing
+ * the Tomcat thread while the query runs.
+ */
 @Controller
 @RequestMapping(CustomerController.BASE_URL)
 public class CustomerController {
 
     public static final String BASE_URL = "/api/v1/customers";
+    public static final String DEFAULT_PAGE_SIZE = "100";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
     private final CustomerService customerService;
+    private final IdempotentRequestStore idempotentRequestStore;
+    private final Executor databaseExecutor;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, IdempotentRequestStore idempotentRequestStore,
+                              @Qualifier(AsyncConfig.DATABASE_EXECUTOR) Executor databaseExecutor) {
         this.customerService = customerService;
+        this.idempotentRequestStore = idempotentRequestStore;
+        this.databaseExecutor = databaseExecutor;
     }
 
+    /**
+     * {@code fields} (e.g. {@code customer_url,lastName}) narrows the customers to those fields.
+     */
     @GetMapping
-    public ResponseEntity<CustomerListDTO> getAllCustomers() {
-        return new ResponseEntity<CustomerListDTO>(
-                new CustomerListDTO(customerService.getCustomers()), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<CustomerListDTO>> getAllCustomers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        Set<CustomerField> selected = CustomerField.parse(fields);
+
+        return CompletableFuture.supplyAsync(() -> new ResponseEntity<CustomerListDTO>(selected == null
+                ? customerService.getCustomerPage(after, limit)
+                : customerService.getCustomerPage(after, limit, selected), HttpStatus.OK), databaseExecutor);
+    }
+
+    /**
+     * Type-ahead name search, answered from the in-memory index so it stays synchronous.
+     */
+    @GetMapping(params = {"q", "!ids"})
+    public ResponseEntity<CustomerListDTO> searchCustomers(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "0") int offset,
+                                                           @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return new ResponseEntity<CustomerListDTO>(customerService.searchCustomers(q, offset, limit), HttpStatus.OK);
+    }
+
+    @GetMapping(params = {"ids", "!q"})
+    public CompletableFuture<ResponseEntity<CustomerLookupListDTO>> getCustomersByIds(@RequestParam List<Long> ids) {
+        return CompletableFuture.supplyAsync(() -> new ResponseEntity<CustomerLookupListDTO>(
+                new CustomerLookupListDTO(customerService.getCustomersByIds(ids)), HttpStatus.OK), databaseExecutor);
     }
 
+    @GetMapping(params = {"q", "ids"})
+    public ResponseEntity<Object> rejectSearchWithIds() {
+        throw new BadRequestException("Search with q or look up ids, not both");
+    }
+
+    /**
+     * Without {@code fields} the customer comes from the cache; a selection reads just those columns.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
-        return new ResponseEntity<CustomerDTO>(
-                customerService.getCustomerById(id), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<CustomerDTO>> getCustomerById(@PathVariable Long id,
+                                                                          @RequestParam(required = false) String fields) {
+        Set<CustomerField> selected = CustomerField.parse(fields);
+
+        return CompletableFuture.supplyAsync(() -> {
+            CustomerDTO customerDTO = selected == null
+                    ? customerService.getCustomerById(id)
+                    : customerService.getCustomerById(id, selected);
+
+            return new ResponseEntity<CustomerDTO>(
+                    customerDTO, EntityTags.forVersion(customerDTO.getVersion()), HttpStatus.OK);
+        }, databaseExecutor);
     }
 
+    /**
+     * With an {@code Idempotency-Key} header, retries of the same request replay the original 201
+     * and concurrent duplicates wait for the first one instead of creating another customer.
+     */
     @PostMapping
-    public ResponseEntity<CustomerDTO> createNewCustomer(@RequestBody CustomerDTO customerDTO) {
-        return new ResponseEntity<CustomerDTO>(
-                customerService.createNewCustomer(customerDTO), HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<CustomerDTO>> createNewCustomer(@RequestBody CustomerDTO customerDTO,
+                                                                            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return CompletableFuture.supplyAsync(() -> new ResponseEntity<CustomerDTO>(
+                    customerService.createNewCustomer(customerDTO), HttpStatus.CREATED), databaseExecutor);
+        }
+
+        return idempotentRequestStore.execute(idempotencyKey, customerDTO, () -> CompletableFuture.supplyAsync(
+                () -> new ResponseEntity<CustomerDTO>(customerService.createNewCustomer(customerDTO), HttpStatus.CREATED),
+                databaseExecutor));
     }
 
+    @PostMapping("/bulk")
+    public CompletableFuture<ResponseEntity<CustomerListDTO>> createNewCustomers(@RequestBody List<CustomerDTO> customerDTOs) {
+        return CompletableFuture.supplyAsync(() -> new ResponseEntity<CustomerListDTO>(
+                new CustomerListDTO(customerService.createNewCustomers(customerDTOs), null), HttpStatus.CREATED),
+                databaseExecutor);
+    }
+
+    /**
+     * Creates the customer under {@code id} when it is missing (201), unless {@code If-Match: *}
+     * asks for an existing one.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO) {
-        return new ResponseEntity<CustomerDTO>(
-                customerService.saveCustomerByDTO(id, customerDTO), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<CustomerDTO>> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO,
+                                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        customerDTO.setVersion(EntityTags.expectedVersion(ifMatch));
+
+        return CompletableFuture.supplyAsync(() -> {
+            CustomerDTO savedDTO = EntityTags.matchesAny(ifMatch)
+                    ? customerService.saveCustomerByDTO(id, customerDTO, false)
+                    : customerService.saveCustomerByDTO(id, customerDTO);
+
+            // only a customer this PUT just created can still be at version 0
+            return new ResponseEntity<CustomerDTO>(savedDTO, EntityTags.forVersion(savedDTO.getVersion()),
+                    Long.valueOf(0L).equals(savedDTO.getVersion()) ? HttpStatus.CREATED : HttpStatus.OK);
+        }, databaseExecutor);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<CustomerDTO> patchCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO) {
-        return new ResponseEntity<CustomerDTO>(
-                customerService.patchCustomer(id, customerDTO), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<CustomerDTO>> patchCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO,
+                                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        customerDTO.setVersion(EntityTags.expectedVersion(ifMatch));
+
+        return CompletableFuture.supplyAsync(() -> {
+            CustomerDTO patchedDTO = customerService.patchCustomer(id, customerDTO);
+
+            return new ResponseEntity<CustomerDTO>(
+                    patchedDTO, EntityTags.forVersion(patchedDTO.getVersion()), HttpStatus.OK);
+        }, databaseExecutor);
+    }
+
+    /**
+     * Patches every customer selected by {@code ids} or {@code filter} in one transaction.
+     */
+    @PatchMapping("/bulk")
+    public CompletableFuture<ResponseEntity<CustomerBulkResultListDTO>> patchCustomers(@RequestBody CustomerBulkChangeDTO change) {
+        return CompletableFuture.supplyAsync(() -> new ResponseEntity<CustomerBulkResultListDTO>(
+                new CustomerBulkResultListDTO(customerService.patchCustomers(change)), HttpStatus.OK), databaseExecutor);
+    }
+
+    /**
+     * Deletes every customer selected by {@code ids} or {@code filter} in one transaction.
+     */
+    @DeleteMapping("/bulk")
+    public CompletableFuture<ResponseEntity<CustomerBulkResultListDTO>> deleteCustomers(@RequestBody CustomerBulkChangeDTO change) {
+        return CompletableFuture.supplyAsync(() -> new ResponseEntity<CustomerBulkResultListDTO>(
+                new CustomerBulkResultListDTO(customerService.deleteCustomers(change)), HttpStatus.OK), databaseExecutor);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Void>> deleteCustomer(@PathVariable Long id) {
 
-        customerService.deleteCustomerById(id);
+        return CompletableFuture.supplyAsync(() -> {
+            customerService.deleteCustomerById(id);
 
-        return new ResponseEntity<Void>(HttpStatus.OK);
+            return new ResponseEntity<Void>(HttpStatus.OK);
+        }, databaseExecutor);
     }
 
 }
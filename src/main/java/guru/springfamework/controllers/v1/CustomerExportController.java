@@ -0,0 +1,50 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.services.CustomerService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Bulk export of all customers as newline-delimited JSON, written row by row to the response.
+ */
+@Controller
+@RequestMapping(CustomerExportController.BASE_URL)
+public class CustomerExportController {
+
+    public static final String BASE_URL = CustomerController.BASE_URL + "/export";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+
+    public CustomerExportController(CustomerService customerService, ObjectMapper objectMapper) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public void exportCustomers(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+
+            customerService.exportCustomers(customerDTO -> {
+                try {
+                    generator.writeObject(customerDTO);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.api.v1.model.CustomerImportDTO;
+import guru.springfamework.services.CustomerImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk import of customers from a CSV request body. The body is parsed as it arrives and is only
+ * read as fast as chunks commit, so a fast uploader is held back by TCP flow control instead of
+ * being buffered in memory.
+ */
+@Controller
+@RequestMapping(CustomerImportController.BASE_URL)
+public class CustomerImportController {
+
+    public static final String BASE_URL = CustomerController.BASE_URL + "/import";
+    public static final String CSV_VALUE = "text/csv";
+
+    private final CustomerImportService customerImportService;
+
+    public CustomerImportController(CustomerImportService customerImportService) {
+        this.customerImportService = customerImportService;
+    }
+
+    @PostMapping(consumes = CSV_VALUE)
+    public ResponseEntity<CustomerImportDTO> importCustomers(HttpServletRequest request) throws IOException {
+        String encoding = request.getCharacterEncoding();
+        Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+
+        try (Reader reader = new InputStreamReader(request.getInputStream(), charset)) {
+            return new ResponseEntity<CustomerImportDTO>(customerImportService.importCustomers(reader), HttpStatus.OK);
+        }
+    }
+}
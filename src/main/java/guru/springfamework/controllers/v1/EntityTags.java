@@ -0,0 +1,48 @@
+package guru.springfamework.controllers.v1;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Strong ETags derived from entity versions. Returning them on a 200 GET lets Spring answer a
+ * matching If-None-Match with 304 before the body is serialized.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static HttpHeaders forVersion(Long version) {
+        HttpHeaders headers = new HttpHeaders();
+        if (version != null) {
+            headers.setETag("\"" + version + "\"");
+        }
+        return headers;
+    }
+
+    /**
+     * Turns an If-Match header into the version it expects: {@code null} when absent or {@code *},
+     * and -1 (never matches) for anything that is not one of our strong version tags.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || matchesAny(ifMatch)) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                return -1L;
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * {@code If-Match: *}, which only requires the resource to exist.
+     */
+    static boolean matchesAny(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
+}
@@ -1,6 +1,9 @@
 package guru.springfamework.controllers.v1;
 
+import guru.springfamework.services.BadRequestException;
+import guru.springfamework.services.IdempotencyKeyReuseException;
 import guru.springfamework.services.ResourceNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @ControllerAdvice
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -18,4 +25,40 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         return new ResponseEntity<>("Resource Not Found", new HttpHeaders(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({BadRequestException.class})
+    public ResponseEntity<Object> handleBadRequest(Exception exception, WebRequest webRequest) {
+
+        return new ResponseEntity<>(messageOf(exception), new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({IdempotencyKeyReuseException.class})
+    public ResponseEntity<Object> handleIdempotencyKeyReuse(Exception exception, WebRequest webRequest) {
+
+        return new ResponseEntity<>(messageOf(exception), new HttpHeaders(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler({RejectedExecutionException.class})
+    public ResponseEntity<Object> handleOverload(Exception exception, WebRequest webRequest) {
+
+        return new ResponseEntity<>("Service Unavailable", new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleVersionMismatch(Exception exception, WebRequest webRequest) {
+
+        return new ResponseEntity<>("Precondition Failed", new HttpHeaders(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handlers returning a {@code CompletableFuture} fail with the service exception wrapped in a
+     * {@link CompletionException}; the handler is matched on the cause, but receives the wrapper.
+     */
+    private static String messageOf(Exception exception) {
+        Throwable cause = exception;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
 }
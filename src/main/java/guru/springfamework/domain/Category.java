@@ -1,22 +1,46 @@
 package guru.springfamework.domain;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
 
 /**
  * Created by jt on 9/24/17.
+ *
+ * Read-mostly reference data, kept in the Hibernate second-level cache; writes through Hibernate
+ * update the cached entity and invalidate cached category queries.
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
+@EntityListeners(CategoryEntityListener.class)
+@Table(indexes = @Index(name = "ux_category_name", columnList = "name", unique = true))
 public class Category {
 
+    public static final String CACHE_REGION = "categories";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @GenericGenerator(name = "category_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "category_seq"))
     private Long id;
     private String name;
 
+    @Version
+    private Long version;
+
 }
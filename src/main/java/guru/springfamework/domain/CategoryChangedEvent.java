@@ -0,0 +1,10 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+@Value
+public class CategoryChangedEvent {
+    Long id;
+    String name;
+    ChangeType type;
+}
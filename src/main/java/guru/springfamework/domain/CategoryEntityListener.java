@@ -0,0 +1,39 @@
+package guru.springfamework.domain;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Publishes a {@link CategoryChangedEvent} for every category write, whichever code path made it.
+ * Instantiated by Hibernate through Spring's bean container.
+ */
+public class CategoryEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void categoryCreated(Category category) {
+        publish(category, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void categoryUpdated(Category category) {
+        publish(category, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void categoryRemoved(Category category) {
+        publish(category, ChangeType.DELETED);
+    }
+
+    private void publish(Category category, ChangeType type) {
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), category.getName(), type));
+    }
+}
@@ -0,0 +1,11 @@
+package guru.springfamework.domain;
+
+/**
+ * What a committed write did to an entity. Only customers are patched.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    PATCHED,
+    DELETED
+}
@@ -0,0 +1,23 @@
+package guru.springfamework.domain;
+
+import lombok.Value;
+
+/**
+ * A committed customer write. A {@link ChangeType#PATCHED partial} change carries only the names
+ * it wrote; a {@code null} name in it is unchanged rather than cleared.
+ */
+@Value
+public class CustomerChangedEvent {
+    Long id;
+    String firstName;
+    String lastName;
+    ChangeType type;
+
+    public boolean isDeleted() {
+        return type == ChangeType.DELETED;
+    }
+
+    public boolean isPartial() {
+        return type == ChangeType.PATCHED;
+    }
+}
@@ -0,0 +1,40 @@
+package guru.springfamework.domain;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Publishes a {@link CustomerChangedEvent} for every customer write made through the entity
+ * manager. Instantiated by Hibernate through Spring's bean container.
+ */
+public class CustomerEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CustomerEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void customerCreated(Customer customer) {
+        publish(customer, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void customerUpdated(Customer customer) {
+        publish(customer, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void customerRemoved(Customer customer) {
+        publish(customer, ChangeType.DELETED);
+    }
+
+    private void publish(Customer customer, ChangeType type) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(
+                customer.getId(), customer.getFirstName(), customer.getLastName(), type));
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springfamework.domain;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sequence generator using the pooled-lo optimizer: each sequence call reserves a block of
+ * {@value #ALLOCATION_SIZE_SETTING} ids, handed out from memory, so inserts need no extra round
+ * trip and can be JDBC-batched. The sequence value is the first id of its block, so other
+ * writers (bulk loaders, SQL scripts) can reserve ids the same way with a plain {@code nextval}.
+ *
+ * <p>The block size is read from the JPA property {@value #ALLOCATION_SIZE_SETTING}
+ * ({@code spring.jpa.properties.app.id.allocation-size}) and applies to every entity using it.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "guru.springfamework.domain.PooledSequenceGenerator";
+    public static final String ALLOCATION_SIZE_SETTING = "app.id.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    /**
+     * Highest id inserted explicitly rather than drawn from this generator.
+     */
+    private final AtomicLong skipThrough = new AtomicLong(Long.MIN_VALUE);
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize(serviceRegistry)));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+
+        super.configure(type, params, serviceRegistry);
+    }
+
+    /**
+     * Skips ids up to {@code id} from now on, for a row inserted under an explicit id that the
+     * block held in memory may contain. Only the ids left in that block are skipped; the caller
+     * moves the sequence itself past {@code id}.
+     */
+    public void skipThrough(long id) {
+        skipThrough.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        Serializable id = super.generate(session, object);
+        while (((Number) id).longValue() <= skipThrough.get()) {
+            id = super.generate(session, object);
+        }
+        return id;
+    }
+
+    private static int allocationSize(ServiceRegistry serviceRegistry) {
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .get(ALLOCATION_SIZE_SETTING);
+
+        return allocationSize == null ? DEFAULT_ALLOCATION_SIZE : Integer.parseInt(allocationSize.toString().trim());
+    }
+}
@@ -2,10 +2,29 @@ package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 /**
  * Created by jt on 9/24/17.
+ *
+ * Both lookups are answered from the Hibernate query cache once warm. They join a caller's
+ * transaction but do not start one, so a cache hit never checks out a JDBC connection.
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Category findByName(String name);
 }
@@ -1,8 +1,17 @@
 package guru.springfamework.repositories;
 
 import guru.springfamework.domain.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    /**
+     * Keyset page: customers with an id greater than {@code id}, in id order.
+     * Only pass a first-page {@link Pageable} so the query is a plain LIMIT without OFFSET.
+     */
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,77 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Customer queries that need direct access to the persistence context.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Streams every customer in id order, detaching each entity once {@code action} has seen it,
+     * so the persistence context never grows beyond the current row. Must run inside a transaction.
+     */
+    void forEachCustomer(Consumer<Customer> action);
+
+    /**
+     * Inserts {@code customers}, then flushes and clears the persistence context so the entities
+     * are not kept by an entity manager that outlives the transaction (open-in-view requests).
+     * Must run inside a transaction.
+     */
+    void insertAll(List<Customer> customers);
+
+    /**
+     * Keyset page like {@link CustomerRepository#findByIdGreaterThanOrderByIdAsc}, selecting only
+     * {@code attributes} plus id and version. The customers are new, unmanaged instances; every
+     * other attribute is null.
+     */
+    List<Customer> findPageWithAttributes(long afterId, int limit, Set<String> attributes);
+
+    /**
+     * Single customer selecting only {@code attributes} plus id and version, as an unmanaged instance.
+     */
+    Optional<Customer> findByIdWithAttributes(Long id, Set<String> attributes);
+
+    /**
+     * Sets {@code values} (attribute name to new value) and increments the version with a single
+     * {@code UPDATE}, without loading the customer. With a non-null {@code expectedVersion} only
+     * that version is updated. Bypasses entity listeners; the persistence context is flushed before
+     * and cleared after, like {@code @Modifying(flushAutomatically = true, clearAutomatically = true)},
+     * so it never serves the old row. Returns the number of rows updated. Must run inside a transaction.
+     */
+    int updateAttributes(Long id, Long expectedVersion, Map<String, Object> values);
+
+    /**
+     * Replaces the names of customer {@code id} and increments its version, or, when
+     * {@code create} allows it, creates it at version 0, with one {@code MERGE}. A created id is
+     * reserved so the id generator never hands it out. Returns the version written, or empty when
+     * the customer does not exist and may not be created. Bypasses entity listeners and clears the
+     * persistence context like {@link #updateAttributes}. Must run inside a transaction.
+     */
+    Optional<Long> upsert(Long id, String firstName, String lastName, boolean create);
+
+    /**
+     * Sets {@code values} and increments the version of every customer matching all
+     * {@code conditions}, returning the updated rows in id order. Both maps are keyed by attribute
+     * name; a collection valued condition matches any of its elements. The matching rows are
+     * locked with one {@code SELECT ... FOR UPDATE} and then changed by set-based {@code UPDATE}
+     * statements over chunks of their ids. When more than {@code limit} customers match, nothing is
+     * written and {@link IncorrectResultSizeDataAccessException} is thrown. Bypasses entity
+     * listeners and clears the persistence context like {@link #updateAttributes}. Must run inside
+     * a transaction.
+     */
+    List<Customer> updateAllWhere(Map<String, Object> conditions, Map<String, Object> values, int limit);
+
+    /**
+     * Deletes every customer matching all {@code conditions} (as in {@link #updateAllWhere}) the
+     * same way and under the same {@code limit}, returning the deleted rows in id order. Must run inside a transaction.
+     */
+    List<Customer> deleteAllWhere(Map<String, Object> conditions, int limit);
+}
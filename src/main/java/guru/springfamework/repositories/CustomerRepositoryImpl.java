@@ -0,0 +1,302 @@
+package guru.springfamework.repositories;
+
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.PooledSequenceGenerator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    public static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Most ids bound into one bulk {@code UPDATE} or {@code DELETE}.
+     */
+    static final int BULK_CHUNK_SIZE = 1000;
+
+    /**
+     * H2's MERGE ... KEY: updates the row with this id (bumping its version) or inserts it at
+     * version 0. Unless {@code ?4} allows creating, the source row is only produced for an
+     * existing customer.
+     */
+    static final String UPSERT = "merge into customer (id, first_name, last_name, version) key (id)"
+            + " select ?1, ?2, ?3, coalesce((select coalesce(version, 0) + 1 from customer where id = ?1), 0)"
+            + " from (select 1)"
+            + " where ?4 or exists (select 1 from customer where id = ?1)";
+
+    /**
+     * H2 1.4.197 has no {@code MERGE ... RETURNING} or data change delta table, so the written
+     * version is read back; the merge holds the row's lock until commit.
+     */
+    static final String SELECT_VERSION = "select version from customer where id = ?1";
+
+    /**
+     * Moves customer_seq past {@code ?1} as {@code SequenceAligner} does at startup, never
+     * backwards. One statement, so it cannot interleave with a concurrent {@code nextval}; the
+     * sequence change itself is not rolled back, which only skips some ids.
+     */
+    static final String ADVANCE_SEQUENCE = "alter sequence customer_seq restart with"
+            + " (select greatest(current_value + increment, ?1 + 1) from information_schema.sequences"
+            + " where sequence_schema = schema() and sequence_name = 'CUSTOMER_SEQ')";
+
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void forEachCustomer(Consumer<Customer> action) {
+        try (Stream<Customer> customers = entityManager
+                .createQuery("select c from Customer c order by c.id", Customer.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+
+            customers.forEach(customer -> {
+                action.accept(customer);
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    @Override
+    public void insertAll(List<Customer> customers) {
+        customers.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public List<Customer> findPageWithAttributes(long afterId, int limit, Set<String> attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Customer> customer = query.from(Customer.class);
+
+        List<String> selected = selectedAttributes(attributes);
+        query.multiselect(selections(customer, selected))
+                .where(criteriaBuilder.greaterThan(customer.get(ID), afterId))
+                .orderBy(criteriaBuilder.asc(customer.get(ID)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> toCustomer(tuple, selected))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Customer> findByIdWithAttributes(Long id, Set<String> attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Customer> customer = query.from(Customer.class);
+
+        List<String> selected = selectedAttributes(attributes);
+        query.multiselect(selections(customer, selected))
+                .where(criteriaBuilder.equal(customer.get(ID), id));
+
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(tuple -> toCustomer(tuple, selected));
+    }
+
+    @Override
+    public int updateAttributes(Long id, Long expectedVersion, Map<String, Object> values) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Customer> update = criteriaBuilder.createCriteriaUpdate(Customer.class);
+        Root<Customer> customer = update.from(Customer.class);
+
+        values.forEach(update::set);
+        update.set(customer.<Long>get(VERSION), criteriaBuilder.sum(customer.<Long>get(VERSION), 1L));
+
+        Predicate matchesId = criteriaBuilder.equal(customer.get(ID), id);
+        update.where(expectedVersion == null
+                ? matchesId
+                : criteriaBuilder.and(matchesId, criteriaBuilder.equal(customer.get(VERSION), expectedVersion)));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public Optional<Long> upsert(Long id, String firstName, String lastName, boolean create) {
+        entityManager.flush();
+        int merged = entityManager.createNativeQuery(UPSERT)
+                .setParameter(1, id)
+                .setParameter(2, firstName)
+                .setParameter(3, lastName)
+                .setParameter(4, create)
+                .executeUpdate();
+        entityManager.clear();
+
+        if (merged == 0) {
+            return Optional.empty();
+        }
+
+        long version = ((Number) entityManager.createNativeQuery(SELECT_VERSION)
+                .setParameter(1, id)
+                .getSingleResult()).longValue();
+        if (version == 0L) {
+            reserveId(id);
+        }
+        return Optional.of(version);
+    }
+
+    /**
+     * Keeps the id generator from handing out {@code id}, which was just inserted explicitly: the
+     * sequence moves past it for blocks reserved from now on, and the generator skips it should
+     * the block it holds in memory contain it.
+     */
+    private void reserveId(Long id) {
+        entityManager.createNativeQuery(ADVANCE_SEQUENCE)
+                .setParameter(1, id)
+                .executeUpdate();
+
+        IdentifierGenerator generator = entityManager.unwrap(SessionImplementor.class)
+                .getFactory()
+                .getIdentifierGenerator(Customer.class.getName());
+        if (generator instanceof PooledSequenceGenerator) {
+            ((PooledSequenceGenerator) generator).skipThrough(id);
+        }
+    }
+
+    @Override
+    public List<Customer> updateAllWhere(Map<String, Object> conditions, Map<String, Object> values, int limit) {
+        List<Customer> customers = lockAllWhere(conditions, limit);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        forEachIdChunk(customers, ids -> {
+            CriteriaUpdate<Customer> update = criteriaBuilder.createCriteriaUpdate(Customer.class);
+            Root<Customer> customer = update.from(Customer.class);
+
+            values.forEach(update::set);
+            update.set(customer.<Long>get(VERSION), criteriaBuilder.sum(customer.<Long>get(VERSION), 1L));
+            update.where(customer.get(ID).in(ids));
+            entityManager.createQuery(update).executeUpdate();
+        });
+
+        // the rows are locked, so applying the same change in memory gives exactly what was written
+        for (Customer customer : customers) {
+            new BeanWrapperImpl(customer).setPropertyValues(values);
+            customer.setVersion(customer.getVersion() == null ? null : customer.getVersion() + 1);
+        }
+        return customers;
+    }
+
+    @Override
+    public List<Customer> deleteAllWhere(Map<String, Object> conditions, int limit) {
+        List<Customer> customers = lockAllWhere(conditions, limit);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        forEachIdChunk(customers, ids -> {
+            CriteriaDelete<Customer> delete = criteriaBuilder.createCriteriaDelete(Customer.class);
+            Root<Customer> customer = delete.from(Customer.class);
+
+            delete.where(customer.get(ID).in(ids));
+            entityManager.createQuery(delete).executeUpdate();
+        });
+        return customers;
+    }
+
+    /**
+     * Selects and write-locks every customer matching all {@code conditions} in id order, leaving
+     * them detached so the bulk statements that follow are the only writes. At most one row past
+     * {@code limit} is read, just enough to tell that the selection is too large.
+     */
+    private List<Customer> lockAllWhere(Map<String, Object> conditions, int limit) {
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("Bulk statements need at least one condition");
+        }
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = criteriaBuilder.createQuery(Customer.class);
+        Root<Customer> customer = query.from(Customer.class);
+
+        List<Predicate> predicates = new ArrayList<>(conditions.size());
+        conditions.forEach((attribute, value) -> predicates.add(value instanceof Collection
+                ? customer.get(attribute).in((Collection<?>) value)
+                : criteriaBuilder.equal(customer.get(attribute), value)));
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteriaBuilder.asc(customer.get(ID)));
+
+        // cleared first so the rows come back as fresh instances, never ones the caller still holds
+        entityManager.flush();
+        entityManager.clear();
+        List<Customer> customers = entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        entityManager.clear();
+
+        if (customers.size() > limit) {
+            throw new IncorrectResultSizeDataAccessException(
+                    "More than " + limit + " customers match " + conditions.keySet(), limit);
+        }
+        return customers;
+    }
+
+    private void forEachIdChunk(List<Customer> customers, Consumer<List<Long>> statement) {
+        for (int from = 0; from < customers.size(); from += BULK_CHUNK_SIZE) {
+            statement.accept(customers.subList(from, Math.min(from + BULK_CHUNK_SIZE, customers.size()))
+                    .stream()
+                    .map(Customer::getId)
+                    .collect(Collectors.toList()));
+        }
+        entityManager.clear();
+    }
+
+    private static List<String> selectedAttributes(Set<String> attributes) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        selected.add(VERSION);
+        selected.addAll(attributes);
+        return new ArrayList<>(selected);
+    }
+
+    private static List<Selection<?>> selections(Root<Customer> customer, List<String> attributes) {
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(customer.get(attribute).alias(attribute));
+        }
+        return selections;
+    }
+
+    private static Customer toCustomer(Tuple tuple, List<String> attributes) {
+        BeanWrapper customer = new BeanWrapperImpl(Customer.class);
+        for (String attribute : attributes) {
+            customer.setPropertyValue(attribute, tuple.get(attribute));
+        }
+        return (Customer) customer.getWrappedInstance();
+    }
+}
@@ -2,24 +2,66 @@ package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CategoryMapper;
 import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.config.MetricsConfig;
+import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryChangedEvent;
 import guru.springfamework.repositories.CategoryRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final String INDEX_KEY = "categoriesByName";
+
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
 
-    public CategoryServiceImpl(CategoryMapper categoryMapper, CategoryRepository categoryRepository) {
+    /**
+     * Immutable name to DTO snapshot, dropped whenever a category changes and rebuilt by the next
+     * lookup, so a burst of changes costs one rebuild rather than one per change.
+     */
+    private volatile Map<String, CategoryDTO> categoriesByName;
+
+    /**
+     * Bumped by every change, so a refresh that read the categories before the change does not
+     * install a snapshot the change already invalidated.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * A lock rather than {@code synchronized}, so a virtual thread waiting on the refresh query
+     * does not pin its carrier thread.
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * Lookups arriving before the index is built share one load instead of each queueing on
+     * {@link #refreshLock} to run findAll again.
+     */
+    private final SingleFlight<String, Map<String, CategoryDTO>> indexLoads;
+
+    public CategoryServiceImpl(CategoryMapper categoryMapper, CategoryRepository categoryRepository,
+                               MeterRegistry meterRegistry) {
         this.categoryMapper = categoryMapper;
         this.categoryRepository = categoryRepository;
+        this.indexLoads = new SingleFlight<>("categoryIndex", meterRegistry);
     }
 
     @Override
+    @Timed(value = MetricsConfig.CATEGORY_SERVICE_TIMER, histogram = true)
     public List<CategoryDTO> getAllCategories() {
         return categoryRepository.findAll()
                 .stream()
@@ -28,7 +70,50 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Timed(value = MetricsConfig.CATEGORY_SERVICE_TIMER, histogram = true)
     public CategoryDTO getCategoryByName(String categoryName) {
-        return categoryMapper.categoryToCategoryDTO(categoryRepository.findByName(categoryName));
+        Map<String, CategoryDTO> snapshot = categoriesByName;
+        if (snapshot == null) {
+            snapshot = indexLoads.execute(INDEX_KEY, this::refreshCategoryIndex);
+        }
+
+        CategoryDTO categoryDTO = snapshot.get(categoryName);
+        if (categoryDTO == null) {
+            throw new ResourceNotFoundException();
+        }
+
+        return categoryDTO;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCategoryIndex() {
+        refreshCategoryIndex();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        categoriesByName = null;
+    }
+
+    private Map<String, CategoryDTO> refreshCategoryIndex() {
+        refreshLock.lock();
+        try {
+            long refreshGeneration = generation.get();
+            List<Category> categories = categoryRepository.findAll();
+
+            Map<String, CategoryDTO> snapshot = new HashMap<>(categories.size() * 2);
+            for (Category category : categories) {
+                snapshot.put(category.getName(), categoryMapper.categoryToCategoryDTO(category));
+            }
+
+            Map<String, CategoryDTO> refreshed = Collections.unmodifiableMap(snapshot);
+            if (generation.get() == refreshGeneration) {
+                categoriesByName = refreshed;
+            }
+            return refreshed;
+        } finally {
+            refreshLock.unlock();
+        }
     }
 }
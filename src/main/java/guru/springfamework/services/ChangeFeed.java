@@ -0,0 +1,464 @@
+package guru.springfamework.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CategoryChangeDTO;
+import guru.springfamework.api.v1.model.CustomerChangeDTO;
+import guru.springfamework.config.MetricsConfig;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.domain.ChangeType;
+import guru.springfamework.domain.CustomerChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed customer and category writes to Server-Sent Events subscribers. Every change
+ * gets the next sequence number and is kept in a bounded history so a reconnecting client can
+ * resume after the last id it saw. Sequence numbers restart with the application, so event ids
+ * are {@code <epoch>-<sequence>}, where the epoch identifies this run; an id from an earlier run
+ * is never mistaken for one of this run's changes.
+ * <p>
+ * Writers never wait for subscribers: each subscriber has its own {@link ChangeRing}, drained onto
+ * the stream by a sender thread. A subscriber that falls a full ring behind is dropped; its
+ * stream ends after the changes already buffered, and it reconnects with its last event id. A
+ * write that blocks for longer than the write timeout stalls its subscriber: it is taken out of
+ * rotation, and the sender pool gets a thread in place of the blocked one until that write
+ * returns, so a slow client never holds back the others. At most {@value #STALLED_SENDER_HEADROOM}
+ * threads are added this way; past that, a stalled subscriber is still taken out of rotation but
+ * keeps its sender.
+ * <p>
+ * A resuming subscriber catches up from the history a ring at a time, refilled by its sender as
+ * it empties, and only then receives changes live; it is dropped like a slow one if the history
+ * overtakes it. A resume point that is no longer in the history gets a {@value #RESYNC_EVENT}
+ * event instead, telling the client to reload before following the feed again.
+ */
+@Component
+public class ChangeFeed {
+
+    public static final String CUSTOMER_EVENT = "customer";
+    public static final String CATEGORY_EVENT = "category";
+    public static final String RESYNC_EVENT = "resync";
+
+    /**
+     * Most sender threads added in place of ones blocked on stalled writes.
+     */
+    static final int STALLED_SENDER_HEADROOM = 4;
+
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final ThreadPoolExecutor senders;
+    private final int maxSenders;
+    private final ScheduledExecutorService watchdog;
+    private final Counter dropped;
+    private final Counter stalled;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribers with a write in progress, dropped ones included, for the watchdog to time.
+     */
+    private final Set<Subscriber> writing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Orders sequence numbering, history and hand-off to the rings, so every subscriber sees
+     * changes in sequence order and a new subscriber's replay meets its live changes without a gap.
+     */
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final Change[] history;
+    private long sequence;
+
+    public ChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${app.change-feed.buffer-size}") int bufferSize,
+                      @Value("${app.change-feed.history-size}") int historySize,
+                      @Value("${app.change-feed.sender-threads}") int senderThreads,
+                      @Value("${app.change-feed.timeout}") Duration timeout,
+                      @Value("${app.change-feed.write-timeout}") Duration writeTimeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.history = new Change[historySize];
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.maxSenders = senderThreads + STALLED_SENDER_HEADROOM;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("change-feed-"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("change-feed-watchdog-"));
+
+        long checkEveryMillis = Math.max(1, writeTimeout.toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::stallBlockedWrites, checkEveryMillis, checkEveryMillis,
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder(MetricsConfig.CHANGE_FEED_SUBSCRIBERS, subscribers, List::size)
+                .description("Open change feed streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(MetricsConfig.CHANGE_FEED_DROPPED)
+                .description("Change feed subscribers dropped for falling too far behind")
+                .register(meterRegistry);
+        this.stalled = Counter.builder(MetricsConfig.CHANGE_FEED_STALLED)
+                .description("Change feed subscribers taken out of rotation by a blocked write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes after {@code lastEventId}, or of new changes only when it is
+     * {@code null}.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ChangeRing<>(bufferSize));
+
+        long resyncAt = -1;
+        publishLock.lock();
+        try {
+            long resumeAfter = lastEventId == null ? sequence : sequenceOf(lastEventId);
+            if (retained(resumeAfter)) {
+                subscriber.replayNext = resumeAfter + 1;
+                subscriber.replaying = subscriber.replayNext <= sequence;
+                subscribers.add(subscriber);
+                catchUp(subscriber);
+            } else {
+                resyncAt = sequence;
+            }
+        } finally {
+            publishLock.unlock();
+        }
+
+        if (resyncAt >= 0) {
+            try {
+                String resyncId = eventId(resyncAt);
+                emitter.send(SseEmitter.event().id(resyncId).name(RESYNC_EVENT).data(resyncId));
+                emitter.complete();
+            } catch (IOException e) {
+                // the client is already gone
+            }
+            return emitter;
+        }
+
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+        if (!subscriber.ring.isEmpty()) {
+            schedule(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Published after commit so rolled back writes never reach subscribers.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        publish(CUSTOMER_EVENT, new CustomerChangeDTO(
+                type(event.getType()), event.getId(), event.getFirstName(), event.getLastName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        publish(CATEGORY_EVENT, new CategoryChangeDTO(type(event.getType()), event.getId(), event.getName()));
+    }
+
+    /**
+     * Identifies this run of the feed; the prefix of every event id it sends.
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void publish(String name, Object payload) {
+        // serialized once, whatever the number of subscribers
+        String data = serialize(payload);
+
+        publishLock.lock();
+        try {
+            Change change = new Change(++sequence, name, data);
+            history[(int) (change.sequence % history.length)] = change;
+
+            for (Subscriber subscriber : subscribers) {
+                // a subscriber still catching up reads this change from the history
+                if (!subscriber.replaying && !subscriber.ring.offer(change)) {
+                    drop(subscriber);
+                }
+                schedule(subscriber);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Whether the changes after {@code lastEventId} are all still in the history; {@code false}
+     * as well for an id this feed never issued. Called with the publish lock held.
+     */
+    private boolean retained(long lastEventId) {
+        long oldest = Math.max(1, sequence - history.length + 1);
+        return lastEventId >= 0 && lastEventId <= sequence && lastEventId + 1 >= oldest;
+    }
+
+    /**
+     * Moves as much of the history the subscriber has yet to see into its ring as fits, and
+     * switches it to live changes once nothing is left. Called with the publish lock held, which
+     * keeps this the ring's only producer meanwhile.
+     */
+    private void catchUp(Subscriber subscriber) {
+        if (!retained(subscriber.replayNext - 1)) {
+            drop(subscriber);
+            return;
+        }
+
+        while (subscriber.replayNext <= sequence
+                && subscriber.ring.offer(history[(int) (subscriber.replayNext % history.length)])) {
+            subscriber.replayNext++;
+        }
+        subscriber.replaying = subscriber.replayNext <= sequence;
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscriber.dropped = true;
+        subscriber.replaying = false;
+        subscribers.remove(subscriber);
+        dropped.increment();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                Change change = subscriber.ring.poll();
+                if (change == null && subscriber.replaying) {
+                    publishLock.lock();
+                    try {
+                        catchUp(subscriber);
+                    } finally {
+                        publishLock.unlock();
+                    }
+                    change = subscriber.ring.poll();
+                }
+                if (change == null) {
+                    break;
+                }
+
+                write(subscriber, SseEmitter.event()
+                        .id(eventId(change.sequence))
+                        .name(change.name)
+                        .data(change.data, MediaType.APPLICATION_JSON));
+            }
+            if (subscriber.stalled) {
+                // the blocked write went through in the end; the client resumes from there
+                subscriber.emitter.complete();
+            } else if (subscriber.dropped) {
+                subscriber.closed = true;
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the stream timed out
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // a change offered, or a drop decided, while this drain was finishing
+        if (!subscriber.closed && (subscriber.dropped || !subscriber.ring.isEmpty())) {
+            schedule(subscriber);
+        }
+    }
+
+    private void write(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.pendingWrite.set(new PendingWrite(System.nanoTime(), false, false));
+        writing.add(subscriber);
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            writing.remove(subscriber);
+            PendingWrite finished = subscriber.pendingWrite.getAndSet(null);
+            if (finished != null && finished.replaced) {
+                shrinkSenders();
+            }
+        }
+    }
+
+    /**
+     * Runs on the watchdog thread. The emitter cannot be completed from here, since it is locked
+     * for the blocked write, so the sender completes it once the write returns.
+     */
+    private void stallBlockedWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : writing) {
+            PendingWrite pending = subscriber.pendingWrite.get();
+            if (pending == null || pending.stalled || now - pending.startedNanos <= writeTimeoutNanos) {
+                continue;
+            }
+
+            boolean replaced = growSenders();
+            // each write has its own PendingWrite, so the swap cannot hit a later write
+            if (subscriber.pendingWrite.compareAndSet(pending, new PendingWrite(pending.startedNanos, true, replaced))) {
+                subscriber.stalled = true;
+                close(subscriber);
+                stalled.increment();
+            } else if (replaced) {
+                shrinkSenders();
+            }
+        }
+    }
+
+    /**
+     * Adds a sender thread in place of one blocked on a stalled write, unless the headroom is
+     * used up; {@link #shrinkSenders} gives it back once that write returns.
+     */
+    private synchronized boolean growSenders() {
+        int size = senders.getCorePoolSize() + 1;
+        if (size > maxSenders) {
+            return false;
+        }
+        senders.setMaximumPoolSize(size);
+        senders.setCorePoolSize(size);
+        return true;
+    }
+
+    private synchronized void shrinkSenders() {
+        int size = senders.getCorePoolSize() - 1;
+        senders.setCorePoolSize(size);
+        senders.setMaximumPoolSize(size);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private String eventId(long sequence) {
+        return epoch + '-' + sequence;
+    }
+
+    /**
+     * The sequence number in one of this run's event ids, or -1 for any other id.
+     */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize change", e);
+        }
+    }
+
+    private static String type(ChangeType type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Change {
+
+        private final long sequence;
+        private final String name;
+        private final String data;
+
+        private Change(long sequence, String name, String data) {
+            this.sequence = sequence;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private static final class PendingWrite {
+
+        /**
+         * {@link System#nanoTime} when the write started; only meaningful relative to another one.
+         */
+        private final long startedNanos;
+        private final boolean stalled;
+
+        /**
+         * Set when a sender thread was added in place of the one this write blocks.
+         */
+        private final boolean replaced;
+
+        private PendingWrite(long startedNanos, boolean stalled, boolean replaced) {
+            this.startedNanos = startedNanos;
+            this.stalled = stalled;
+            this.replaced = replaced;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ChangeRing<Change> ring;
+
+        /**
+         * Set while a sender thread owns the ring's consumer side.
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /**
+         * The write in progress, {@code null} between writes.
+         */
+        private final AtomicReference<PendingWrite> pendingWrite = new AtomicReference<>();
+
+        /**
+         * Next change to copy from the history while catching up; guarded by the publish lock.
+         */
+        private long replayNext;
+
+        private volatile boolean replaying;
+        private volatile boolean dropped;
+        private volatile boolean stalled;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, ChangeRing<Change> ring) {
+            this.emitter = emitter;
+            this.ring = ring;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package guru.springfamework.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring for exactly one producer thread at a time and one consumer thread at a
+ * time. {@link #offer} never blocks: a full ring refuses the element and the producer decides what
+ * to do about it. Capacity is rounded up to a power of two.
+ */
+final class ChangeRing<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+
+    /**
+     * Next position to read; only the consumer advances it.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Next position to write; only the producer advances it.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    ChangeRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends {@code element}, or returns {@code false} when the consumer has fallen a full ring behind.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        if (position - head.get() == slots.length()) {
+            return false;
+        }
+
+        slots.lazySet((int) position & mask, element);
+        // ordered after the slot write, so a consumer that sees the new tail also sees the element
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest element, or {@code null} when the ring is empty.
+     */
+    E poll() {
+        long position = head.get();
+        if (position == tail.get()) {
+            return null;
+        }
+
+        int index = (int) position & mask;
+        E element = slots.get(index);
+        slots.lazySet(index, null);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,166 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams customers out of RFC 4180 CSV: comma separated, optionally double-quoted fields with
+ * {@code ""} escapes and embedded line breaks. The first record is a header naming the
+ * {@code firstName} and {@code lastName} columns (also accepted as {@code first_name} /
+ * {@code last_name}, any case, in any order). Only one record is held in memory at a time.
+ */
+public class CustomerCsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private long lineNumber = 1;
+    private int firstNameColumn = -1;
+    private int lastNameColumn = -1;
+    private int columns;
+
+    public CustomerCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next row, or {@code null} at the end of the input. Rows with the wrong number
+     * of fields come back with an error instead of a customer; blank lines are skipped.
+     *
+     * @throws IOException when the input cannot be read, has no usable header or ends inside a
+     *                     quoted field
+     */
+    public Row next() throws IOException {
+        if (columns == 0) {
+            readHeader();
+        }
+
+        List<String> record;
+        long recordLine;
+        do {
+            recordLine = lineNumber;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isEmpty());
+
+        if (record.size() != columns) {
+            return new Row(recordLine, null, "Expected " + columns + " fields but found " + record.size());
+        }
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(record.get(firstNameColumn));
+        customerDTO.setLastName(record.get(lastNameColumn));
+        return new Row(recordLine, customerDTO, null);
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("CSV input is empty");
+        }
+
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (column.equals("firstname")) {
+                firstNameColumn = i;
+            } else if (column.equals("lastname")) {
+                lastNameColumn = i;
+            }
+        }
+
+        if (firstNameColumn < 0 || lastNameColumn < 0) {
+            throw new IOException("CSV header must name firstName and lastName columns, found " + header);
+        }
+        columns = header.size();
+    }
+
+    private List<String> readRecord() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>(columns == 0 ? 4 : columns);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        long quoteStartLine = lineNumber;
+
+        while (fill()) {
+            char c = buffer[position++];
+
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buffer[position] == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0 && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+                quoteStartLine = lineNumber;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IOException("Quoted field starting on line " + quoteStartLine + " is not terminated");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+
+        limit = reader.read(buffer, 0, BUFFER_SIZE);
+        position = 0;
+        return limit > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * One data row: the customer it describes, or why it could not be read.
+     */
+    @Value
+    public static class Row {
+        long lineNumber;
+        CustomerDTO customer;
+        String error;
+    }
+}
@@ -0,0 +1,10 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CustomerImportDTO;
+
+import java.io.Reader;
+
+public interface CustomerImportService {
+
+    CustomerImportDTO importCustomers(Reader csv);
+}
@@ -0,0 +1,158 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerImportChunkDTO;
+import guru.springfamework.api.v1.model.CustomerImportDTO;
+import guru.springfamework.api.v1.model.CustomerImportErrorDTO;
+import guru.springfamework.config.MetricsConfig;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.repositories.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports customers from a CSV stream in chunks of {@code app.customer-import.chunk-size} rows.
+ * Each chunk commits in its own transaction, so at most one chunk of entities is held at a time
+ * and a failing chunk rolls back alone. Only the first {@code app.customer-import.max-reported-errors}
+ * rejected rows are described; the counts always cover every row.
+ */
+@Service
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    public static final int MAX_NAME_LENGTH = 255;
+
+    private final CustomerMapper customerMapper;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public CustomerImportServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.customer-import.chunk-size}") int chunkSize,
+                                     @Value("${app.customer-import.max-reported-errors}") int maxReportedErrors) {
+        this.customerMapper = customerMapper;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * A file without a usable header, or one that breaks before the first row, is a bad request.
+     * When the file breaks later on, the rows committed so far are kept and the summary carries
+     * the error.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    public CustomerImportDTO importCustomers(Reader csv) {
+        Import customerImport = new Import();
+        CustomerCsvReader reader = new CustomerCsvReader(csv);
+
+        try {
+            for (CustomerCsvReader.Row row = reader.next(); row != null; row = reader.next()) {
+                customerImport.add(row);
+            }
+        } catch (IOException e) {
+            if (customerImport.isEmpty()) {
+                throw new BadRequestException(e.getMessage(), e);
+            }
+            customerImport.summary.setError(e.getMessage());
+        }
+
+        customerImport.commit();
+        return customerImport.summary;
+    }
+
+    static String validate(CustomerDTO customerDTO) {
+        String error = validateName("firstName", customerDTO.getFirstName());
+        return error != null ? error : validateName("lastName", customerDTO.getLastName());
+    }
+
+    private static String validateName(String field, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return field + " must not be blank";
+        }
+        if (value.length() > MAX_NAME_LENGTH) {
+            return field + " must be at most " + MAX_NAME_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    /**
+     * Running state of one import: the summary so far and the rows of the open chunk.
+     */
+    private final class Import {
+
+        private final CustomerImportDTO summary = new CustomerImportDTO();
+        private final List<Customer> customers = new ArrayList<>(chunkSize);
+        private CustomerImportChunkDTO chunk;
+        private int reportedErrors;
+
+        boolean isEmpty() {
+            return chunk == null && summary.getChunks().isEmpty();
+        }
+
+        void add(CustomerCsvReader.Row row) {
+            if (chunk == null) {
+                chunk = new CustomerImportChunkDTO();
+                chunk.setChunk(summary.getChunks().size() + 1);
+                chunk.setFirstLine(row.getLineNumber());
+            }
+            chunk.setLastLine(row.getLineNumber());
+
+            String error = row.getError() != null ? row.getError() : validate(row.getCustomer());
+            if (error == null) {
+                customers.add(customerMapper.customerDTOToCustomer(row.getCustomer()));
+            } else {
+                reject(1, row.getLineNumber(), error);
+            }
+
+            if (customers.size() + chunk.getRejected() == chunkSize) {
+                commit();
+            }
+        }
+
+        void commit() {
+            if (chunk == null) {
+                return;
+            }
+
+            try {
+                transactionTemplate.execute(status -> {
+                    customerRepository.insertAll(customers);
+                    return null;
+                });
+                chunk.setAccepted(customers.size());
+                summary.setAccepted(summary.getAccepted() + customers.size());
+            } catch (DataAccessException e) {
+                reject(customers.size(), chunk.getFirstLine(),
+                        "Chunk rolled back: " + e.getMostSpecificCause().getMessage());
+            }
+
+            summary.getChunks().add(chunk);
+            customers.clear();
+            chunk = null;
+        }
+
+        private void reject(int rows, long line, String message) {
+            chunk.setRejected(chunk.getRejected() + rows);
+            summary.setRejected(summary.getRejected() + rows);
+
+            if (reportedErrors < maxReportedErrors) {
+                chunk.getErrors().add(new CustomerImportErrorDTO(line, message));
+                reportedErrors++;
+            }
+        }
+    }
+}
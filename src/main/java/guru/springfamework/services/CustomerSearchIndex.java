@@ -0,0 +1,470 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory type-ahead index over customer first and last names.
+ *
+ * <p>Query terms of three or more characters are answered from trigram posting lists, which
+ * are intersected and then verified against the names, so they match anywhere in a name.
+ * Shorter terms are answered as name prefixes from a sorted term map. Every term of a query
+ * has to match; results are ranked exact name, then name prefix, then substring match.
+ */
+@Component
+final class CustomerSearchIndex {
+
+    static final String MEMORY_GAUGE = "customer.search.index.memory";
+
+    private static final int NGRAM = 3;
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int SUBSTRING_SCORE = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Postings postings = new Postings();
+
+    /**
+     * Changes seen while {@link #rebuild} streams the table; replayed onto the new postings.
+     */
+    private List<CustomerChangedEvent> pendingChanges;
+
+    CustomerSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("customer.search.index.customers", this, CustomerSearchIndex::size)
+                .description("Customers held by the name search index")
+                .register(meterRegistry);
+        Gauge.builder(MEMORY_GAUGE, this, CustomerSearchIndex::estimatedMemoryBytes)
+                .description("Estimated heap used by the name search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds a fresh index from {@code source} without blocking searches, then swaps it in.
+     */
+    void rebuild(Consumer<Consumer<Customer>> source) {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Postings rebuilt = new Postings();
+        source.accept(customer -> rebuilt.put(customer.getId(), customer.getFirstName(), customer.getLastName()));
+
+        lock.writeLock().lock();
+        try {
+            // applying a change twice is harmless, so replaying ones already in the stream is fine
+            pendingChanges.forEach(rebuilt::apply);
+            pendingChanges = null;
+            postings = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void apply(CustomerChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            postings.apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ranked matches starting at {@code offset}.
+     */
+    List<CustomerDTO> search(String query, int offset, int limit) {
+        String[] terms = normalize(query).split("\\s+");
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = null;
+            for (String term : terms) {
+                long[] termCandidates = postings.candidates(term);
+                candidates = candidates == null ? termCandidates : PostingList.intersect(candidates, termCandidates);
+                if (candidates.length == 0) {
+                    return new ArrayList<>();
+                }
+            }
+
+            int wanted = (int) Math.min((long) offset + limit, candidates.length);
+            if (wanted <= offset) {
+                return new ArrayList<>();
+            }
+
+            // keep only the best offset + limit matches, worst on top, instead of sorting every candidate
+            PriorityQueue<ScoredCustomer> best = new PriorityQueue<>(wanted, ScoredCustomer.RANKING.reversed());
+            for (long id : candidates) {
+                IndexedCustomer customer = postings.customers.get(id);
+                int score = customer.score(terms);
+                if (score == 0) {
+                    continue;
+                }
+
+                ScoredCustomer match = new ScoredCustomer(customer, score);
+                if (best.size() < wanted) {
+                    best.add(match);
+                } else if (ScoredCustomer.RANKING.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+
+            List<ScoredCustomer> ranked = new ArrayList<>(best);
+            ranked.sort(ScoredCustomer.RANKING);
+            return ranked.stream()
+                    .skip(offset)
+                    .map(match -> match.customer.toCustomerDTO())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return postings.customers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough 64-bit compressed-oops estimate of the index's retained heap: map entries, boxed
+     * keys, names and posting arrays. Good enough to watch growth, not an exact measurement.
+     */
+    long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return postings.estimatedMemoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private static final class Postings {
+
+        private static final long HASH_ENTRY_BYTES = 32 + 16;  // HashMap.Node plus boxed Long key
+        private static final long TREE_ENTRY_BYTES = 40;       // TreeMap.Entry
+        private static final long CUSTOMER_BYTES = 32;          // IndexedCustomer
+        private static final long STRING_BYTES = 24 + 16;       // String plus char[] header
+
+        private final Map<Long, IndexedCustomer> customers = new HashMap<>();
+        private final Map<Long, PostingList> trigrams = new HashMap<>();
+        private final NavigableMap<String, PostingList> names = new TreeMap<>();
+
+        void apply(CustomerChangedEvent change) {
+            if (change.isDeleted()) {
+                remove(change.getId());
+            } else if (change.isPartial()) {
+                IndexedCustomer current = customers.get(change.getId());
+                put(change.getId(),
+                        change.getFirstName() != null || current == null ? change.getFirstName() : current.firstName,
+                        change.getLastName() != null || current == null ? change.getLastName() : current.lastName);
+            } else {
+                put(change.getId(), change.getFirstName(), change.getLastName());
+            }
+        }
+
+        void put(Long id, String firstName, String lastName) {
+            remove(id);
+
+            IndexedCustomer customer = new IndexedCustomer(id, firstName, lastName);
+            customers.put(id, customer);
+            for (String name : customer.normalizedNames()) {
+                names.computeIfAbsent(name, key -> new PostingList()).add(id);
+                for (int i = 0; i + NGRAM <= name.length(); i++) {
+                    trigrams.computeIfAbsent(trigram(name, i), key -> new PostingList()).add(id);
+                }
+            }
+        }
+
+        void remove(Long id) {
+            IndexedCustomer customer = customers.remove(id);
+            if (customer == null) {
+                return;
+            }
+
+            for (String name : customer.normalizedNames()) {
+                removePosting(names, name, id);
+                for (int i = 0; i + NGRAM <= name.length(); i++) {
+                    removePosting(trigrams, trigram(name, i), id);
+                }
+            }
+        }
+
+        private static <K> void removePosting(Map<K, PostingList> postings, K key, long id) {
+            PostingList postingList = postings.get(key);
+            if (postingList != null && postingList.remove(id) && postingList.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+
+        /**
+         * Sorted ids that may match {@code term}; the caller verifies each one.
+         */
+        long[] candidates(String term) {
+            if (term.length() < NGRAM) {
+                return PostingList.union(names.subMap(term, true, term + Character.MAX_VALUE, false).values());
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (int i = 0; i + NGRAM <= term.length(); i++) {
+                PostingList postingList = trigrams.get(trigram(term, i));
+                if (postingList == null) {
+                    return new long[0];
+                }
+                lists.add(postingList);
+            }
+
+            // start from the rarest trigram and probe the common ones, which can span every customer
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            long[] candidates = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                candidates = lists.get(i).retain(candidates);
+            }
+            return candidates;
+        }
+
+        long estimatedMemoryBytes() {
+            long bytes = 0;
+            for (IndexedCustomer customer : customers.values()) {
+                bytes += HASH_ENTRY_BYTES + CUSTOMER_BYTES + customer.estimatedNameBytes();
+            }
+            for (PostingList postingList : trigrams.values()) {
+                bytes += HASH_ENTRY_BYTES + postingList.estimatedBytes();
+            }
+            for (Map.Entry<String, PostingList> name : names.entrySet()) {
+                bytes += TREE_ENTRY_BYTES + STRING_BYTES + 2L * name.getKey().length() + name.getValue().estimatedBytes();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free customer ids held in a primitive array.
+     */
+    private static final class PostingList {
+
+        private static final long POSTING_LIST_BYTES = 24 + 16; // PostingList plus array header
+
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+
+            position = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        /**
+         * The sorted {@code candidates} that are also in this list, by binary search per candidate.
+         */
+        long[] retain(long[] candidates) {
+            long[] result = new long[candidates.length];
+            int count = 0;
+            for (long candidate : candidates) {
+                if (Arrays.binarySearch(ids, 0, size, candidate) >= 0) {
+                    result[count++] = candidate;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        long estimatedBytes() {
+            return POSTING_LIST_BYTES + 8L * ids.length;
+        }
+
+        static long[] intersect(long[] left, long[] right) {
+            long[] result = new long[Math.min(left.length, right.length)];
+            int count = 0;
+            for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[count++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        static long[] union(Iterable<PostingList> postingLists) {
+            int total = 0;
+            for (PostingList postingList : postingLists) {
+                total += postingList.size;
+            }
+
+            long[] result = new long[total];
+            int count = 0;
+            for (PostingList postingList : postingLists) {
+                System.arraycopy(postingList.ids, 0, result, count, postingList.size);
+                count += postingList.size;
+            }
+            return Arrays.stream(result).sorted().distinct().toArray();
+        }
+    }
+
+    private static final class IndexedCustomer {
+
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+        private final String normalizedFirstName;
+        private final String normalizedLastName;
+
+        IndexedCustomer(Long id, String firstName, String lastName) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.normalizedFirstName = firstName == null ? null : normalize(firstName);
+            this.normalizedLastName = lastName == null ? null : normalize(lastName);
+        }
+
+        List<String> normalizedNames() {
+            List<String> normalizedNames = new ArrayList<>(2);
+            if (normalizedFirstName != null && !normalizedFirstName.isEmpty()) {
+                normalizedNames.add(normalizedFirstName);
+            }
+            if (normalizedLastName != null && !normalizedLastName.isEmpty()
+                    && !normalizedLastName.equals(normalizedFirstName)) {
+                normalizedNames.add(normalizedLastName);
+            }
+            return normalizedNames;
+        }
+
+        /**
+         * Sum of the best per-name score of every term, or 0 when any term matches neither name.
+         */
+        int score(String[] terms) {
+            int score = 0;
+            for (String term : terms) {
+                int termScore = Math.max(score(normalizedFirstName, term), score(normalizedLastName, term));
+                if (termScore == 0) {
+                    return 0;
+                }
+                score += termScore;
+            }
+            return score;
+        }
+
+        private static int score(String name, String term) {
+            if (name == null) {
+                return 0;
+            }
+            if (name.equals(term)) {
+                return EXACT_SCORE;
+            }
+            if (name.startsWith(term)) {
+                return PREFIX_SCORE;
+            }
+            // short terms are only looked up as prefixes
+            return term.length() >= NGRAM && name.contains(term) ? SUBSTRING_SCORE : 0;
+        }
+
+        long estimatedNameBytes() {
+            long bytes = 0;
+            for (String name : new String[]{firstName, lastName, normalizedFirstName, normalizedLastName}) {
+                if (name != null) {
+                    bytes += Postings.STRING_BYTES + 2L * name.length();
+                }
+            }
+            return bytes;
+        }
+
+        CustomerDTO toCustomerDTO() {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setId(id);
+            customerDTO.setFirstName(firstName);
+            customerDTO.setLastName(lastName);
+            return customerDTO;
+        }
+    }
+
+    private static final class ScoredCustomer {
+
+        static final Comparator<ScoredCustomer> RANKING = Comparator
+                .comparingInt((ScoredCustomer match) -> match.score).reversed()
+                .thenComparing(match -> match.customer.normalizedLastName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(match -> match.customer.normalizedFirstName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(match -> match.customer.id);
+
+        private final IndexedCustomer customer;
+        private final int score;
+
+        ScoredCustomer(IndexedCustomer customer, int score) {
+            this.customer = customer;
+            this.score = score;
+        }
+    }
+}
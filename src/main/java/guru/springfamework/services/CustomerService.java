@@ -1,20 +1,47 @@
 package guru.springfamework.services;
 
+import guru.springfamework.api.v1.model.CustomerBulkChangeDTO;
+import guru.springfamework.api.v1.model.CustomerBulkResultDTO;
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerField;
+import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.api.v1.model.CustomerLookupDTO;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
     List<CustomerDTO> getCustomers();
 
+    CustomerListDTO getCustomerPage(Long after, int limit);
+
+    CustomerListDTO getCustomerPage(Long after, int limit, Set<CustomerField> fields);
+
+    CustomerListDTO searchCustomers(String query, int offset, int limit);
+
     CustomerDTO getCustomerById(Long id);
 
+    CustomerDTO getCustomerById(Long id, Set<CustomerField> fields);
+
+    List<CustomerLookupDTO> getCustomersByIds(List<Long> ids);
+
+    void exportCustomers(Consumer<CustomerDTO> consumer);
+
     CustomerDTO createNewCustomer(CustomerDTO customerDTO);
 
+    List<CustomerDTO> createNewCustomers(List<CustomerDTO> customerDTOs);
+
     CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO);
 
+    CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO, boolean create);
+
     CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO);
 
+    List<CustomerBulkResultDTO> patchCustomers(CustomerBulkChangeDTO change);
+
+    List<CustomerBulkResultDTO> deleteCustomers(CustomerBulkChangeDTO change);
+
     void deleteCustomerById(Long id);
 }
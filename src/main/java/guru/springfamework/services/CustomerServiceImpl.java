@@ -1,98 +1,527 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CustomerBulkChangeDTO;
+import guru.springfamework.api.v1.model.CustomerBulkResultDTO;
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerField;
+import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.api.v1.model.CustomerLookupDTO;
+import guru.springfamework.api.v1.model.SparseCustomerDTO;
+import guru.springfamework.config.CacheConfig;
+import guru.springfamework.config.MetricsConfig;
 import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.domain.ChangeType;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
 import guru.springfamework.repositories.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.UriUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomerServiceImpl implements CustomerService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BULK_SIZE = 1000;
+    public static final int MAX_MULTI_GET_SIZE = 100;
+
+    private static final String ID_ATTRIBUTE = "id";
+
     private final CustomerMapper customerMapper;
     private final CustomerRepository customerRepository;
+    private final SingleFlight<Long, CustomerDTO> customerLookups;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CustomerServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository,
+                               CustomerSearchIndex customerSearchIndex, MeterRegistry meterRegistry,
+                               ApplicationEventPublisher eventPublisher) {
         this.customerMapper = customerMapper;
         this.customerRepository = customerRepository;
-    }
-
-    private String getCustomerUrl(Long id) {
-        return CustomerController.BASE_URL + "/" + id;
+        this.customerSearchIndex = customerSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.customerLookups = new SingleFlight<>("customerById", meterRegistry);
     }
 
     @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
     public List<CustomerDTO> getCustomers() {
         return customerRepository.findAll()
                 .stream()
-                .map(customer -> {
-                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
-                    customerDTO.setCustomerUrl(getCustomerUrl(customer.getId()));
-                    return customerDTO;
-                })
+                .map(customerMapper::customerToCustomerDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    public CustomerListDTO getCustomerPage(Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // fetch one extra row to learn whether a next page exists without a count query
+        List<Customer> customers = customerRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+
+        return toPage(customers, pageSize, null);
+    }
+
+    /**
+     * Page with only the selected fields: the query reads just their columns (plus id and version),
+     * and fields outside the selection are left out of the JSON.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    public CustomerListDTO getCustomerPage(Long after, int limit, Set<CustomerField> fields) {
+        if (fields == null) {
+            return getCustomerPage(after, limit);
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<Customer> customers = customerRepository.findPageWithAttributes(
+                after == null ? 0L : after, pageSize + 1, attributes(fields));
+
+        return toPage(customers, pageSize, fields);
+    }
+
+    private CustomerListDTO toPage(List<Customer> customers, int pageSize, Set<CustomerField> fields) {
+        boolean hasNextPage = customers.size() > pageSize;
+        if (hasNextPage) {
+            customers = customers.subList(0, pageSize);
+        }
+
+        List<CustomerDTO> customerDTOS = customers
+                .stream()
+                .map(customer -> fields == null
+                        ? customerMapper.customerToCustomerDTO(customer)
+                        : project(customer, fields))
+                .collect(Collectors.toList());
+
+        String nextPageUrl = hasNextPage
+                ? getNextPageUrl(customers.get(pageSize - 1).getId(), pageSize, fields)
+                : null;
+
+        return new CustomerListDTO(customerDTOS, nextPageUrl);
+    }
+
+    private String getNextPageUrl(Long lastId, int limit, Set<CustomerField> fields) {
+        return CustomerController.BASE_URL + "?after=" + lastId + "&limit=" + limit
+                + (fields == null ? "" : "&fields=" + CustomerField.format(fields));
+    }
+
+    private static Set<String> attributes(Set<CustomerField> fields) {
+        return fields.stream().map(CustomerField::getAttribute).collect(Collectors.toSet());
+    }
+
+    /**
+     * Drops the id (and so {@code customer_url}) when the selection does not include it; it is
+     * always read for paging and the ETag.
+     */
+    private CustomerDTO project(Customer customer, Set<CustomerField> fields) {
+        CustomerDTO customerDTO = customerMapper.customerToSparseCustomerDTO(customer);
+        if (!fields.contains(CustomerField.CUSTOMER_URL)) {
+            customerDTO.setId(null);
+        }
+        return customerDTO;
+    }
+
+    /**
+     * Ranked name search served from the in-memory index, without touching the database.
+     * Results carry no version, so the list has no ETags.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    public CustomerListDTO searchCustomers(String query, int offset, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int pageOffset = Math.max(0, offset);
+
+        List<CustomerDTO> customerDTOS = customerSearchIndex.search(query, pageOffset, pageSize + 1);
+
+        boolean hasNextPage = customerDTOS.size() > pageSize;
+        if (hasNextPage) {
+            customerDTOS = customerDTOS.subList(0, pageSize);
+        }
+
+        String nextPageUrl = hasNextPage
+                ? CustomerController.BASE_URL + "?q=" + UriUtils.encodeQueryParam(query, StandardCharsets.UTF_8)
+                        + "&offset=" + (pageOffset + pageSize) + "&limit=" + pageSize
+                : null;
+
+        return new CustomerListDTO(customerDTOS, nextPageUrl);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        customerSearchIndex.rebuild(customerRepository::forEachCustomer);
+    }
+
+    /**
+     * Applied after commit so rolled back writes never reach the search index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        customerSearchIndex.apply(event);
+    }
+
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public CustomerDTO getCustomerById(Long id) {
-        return customerRepository.findById(id)
-                .map(customer -> {
-                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
-                    customerDTO.setCustomerUrl(getCustomerUrl(customer.getId()));
-                    return customerDTO;
-                })
+        // a burst of cache misses for the same id shares one findById
+        return customerLookups.execute(id, () -> customerRepository.findById(id)
+                .map(customerMapper::customerToCustomerDTO)
+                .orElseThrow(ResourceNotFoundException::new));
+    }
+
+    /**
+     * Uncached single read of the selected fields only. {@code null} selects all fields as
+     * {@link #getCustomerById(Long)} does, but as a self-call it skips that method's cache, so
+     * callers wanting the cached customer call it directly.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    public CustomerDTO getCustomerById(Long id, Set<CustomerField> fields) {
+        if (fields == null) {
+            return getCustomerById(id);
+        }
+
+        return customerRepository.findByIdWithAttributes(id, attributes(fields))
+                .map(customer -> project(customer, fields))
                 .orElseThrow(ResourceNotFoundException::new);
     }
 
-    private CustomerDTO saveAndReturnCustomerDTO(Customer customer) {
-        Customer savedCustomer = customerRepository.save(customer);
+    /**
+     * Resolves all ids with a single IN-list query. Results follow the request order, and ids
+     * without a customer are reported as not found instead of failing the call; a blank id (as
+     * in {@code ?ids=1,,3}) is a bad request.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    public List<CustomerLookupDTO> getCustomersByIds(List<Long> ids) {
+        if (ids.size() > MAX_MULTI_GET_SIZE) {
+            throw new BadRequestException("At most " + MAX_MULTI_GET_SIZE + " ids per request");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestException("ids must not contain blank entries");
+        }
+
+        Map<Long, Customer> customersById = new HashMap<>(ids.size() * 2);
+        for (Customer customer : customerRepository.findAllById(new LinkedHashSet<>(ids))) {
+            customersById.put(customer.getId(), customer);
+        }
+
+        return ids.stream()
+                .map(id -> {
+                    Customer customer = customersById.get(id);
+                    if (customer == null) {
+                        return new CustomerLookupDTO(id, false, null);
+                    }
+
+                    return new CustomerLookupDTO(id, true, customerMapper.customerToCustomerDTO(customer));
+                })
+                .collect(Collectors.toList());
+    }
 
-        CustomerDTO returnDTO = customerMapper.customerToCustomerDTO(savedCustomer);
-        returnDTO.setCustomerUrl(getCustomerUrl(savedCustomer.getId()));
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<CustomerDTO> consumer) {
+        customerRepository.forEachCustomer(customer -> consumer.accept(customerMapper.customerToCustomerDTO(customer)));
+    }
 
-        return returnDTO;
+    private CustomerDTO saveAndReturnCustomerDTO(Customer customer) {
+        // flush so the returned DTO (and its ETag) carries the incremented version
+        Customer savedCustomer = customerRepository.saveAndFlush(customer);
+
+        return customerMapper.customerToCustomerDTO(savedCustomer);
     }
 
     @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
     public CustomerDTO createNewCustomer(CustomerDTO customerDTO) {
 
         return saveAndReturnCustomerDTO(customerMapper.customerDTOToCustomer(customerDTO));
     }
 
+    /**
+     * Inserts all customers in one transaction; Hibernate writes them in JDBC batches of
+     * {@code hibernate.jdbc.batch_size} rows, with ids drawn from the pooled customer sequence.
+     */
     @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional
+    public List<CustomerDTO> createNewCustomers(List<CustomerDTO> customerDTOs) {
+        if (customerDTOs.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " customers per request");
+        }
+
+        List<Customer> customers = customerDTOs
+                .stream()
+                .map(customerMapper::customerDTOToCustomer)
+                .collect(Collectors.toList());
+
+        return customerRepository.saveAll(customers)
+                .stream()
+                .map(customerMapper::customerToCustomerDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces customer {@code id} without loading it. With an expected version it is one
+     * conditional {@code UPDATE}; otherwise one {@code MERGE} that updates the customer or creates
+     * it under that id at version 0.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO) {
-        Customer customer = customerMapper.customerDTOToCustomer(customerDTO);
+        return save(id, customerDTO, true);
+    }
+
+    /**
+     * As {@link #saveCustomerByDTO(Long, CustomerDTO)}, but only creates a missing customer when
+     * {@code create} is set; otherwise a missing customer is a failed precondition.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
+    public CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO, boolean create) {
+        return save(id, customerDTO, create);
+    }
+
+    private CustomerDTO save(Long id, CustomerDTO customerDTO, boolean create) {
+        Customer customer = new Customer();
         customer.setId(id);
+        customer.setFirstName(customerDTO.getFirstName());
+        customer.setLastName(customerDTO.getLastName());
+
+        Long expectedVersion = customerDTO.getVersion();
+        ChangeType type = ChangeType.UPDATED;
+        if (expectedVersion != null) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put(CustomerField.FIRST_NAME.getAttribute(), customerDTO.getFirstName());
+            values.put(CustomerField.LAST_NAME.getAttribute(), customerDTO.getLastName());
 
-        return saveAndReturnCustomerDTO(customer);
+            if (customerRepository.updateAttributes(id, expectedVersion, values) == 0) {
+                throw new ObjectOptimisticLockingFailureException(Customer.class, id);
+            }
+            customer.setVersion(expectedVersion + 1);
+        } else {
+            customer.setVersion(customerRepository.upsert(id, customerDTO.getFirstName(), customerDTO.getLastName(), create)
+                    .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Customer.class, id)));
+            if (customer.getVersion() == 0L) {
+                type = ChangeType.CREATED;
+            }
+        }
+
+        // bulk statements skip the entity listener, so the change is announced here
+        eventPublisher.publishEvent(new CustomerChangedEvent(
+                id, customer.getFirstName(), customer.getLastName(), type));
+
+        return customerMapper.customerToCustomerDTO(customer);
     }
 
+    /**
+     * Writes only the supplied names with one {@code UPDATE}, without reading the row first. The
+     * result is built from that update, so it carries the patched names, and the new version when
+     * the patch was conditional on one; the other names are left out. A patch that matches no row
+     * costs one more query to tell a stale version from a missing customer.
+     */
     @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO) {
-        return customerRepository.findById(id)
-                .map(customer -> {
-                    if (customerDTO.getFirstName() != null) {
-                        customer.setFirstName(customerDTO.getFirstName());
-                    }
+        Map<String, Object> values = names(customerDTO);
+        if (values.isEmpty()) {
+            // nothing to write: answer with the current state, as an unchanged save would
+            return customerRepository.findById(id)
+                    .map(customer -> {
+                        checkVersion(customer, customerDTO.getVersion());
+                        return customerMapper.customerToCustomerDTO(customer);
+                    }).orElseThrow(ResourceNotFoundException::new);
+        }
 
-                    if (customerDTO.getLastName() != null) {
-                        customer.setLastName(customerDTO.getLastName());
-                    }
+        Long expectedVersion = customerDTO.getVersion();
+        if (customerRepository.updateAttributes(id, expectedVersion, values) == 0) {
+            if (expectedVersion != null && customerRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Customer.class, id);
+            }
+            throw new ResourceNotFoundException();
+        }
+
+        // bulk updates skip the entity listener, so the change is announced here
+        eventPublisher.publishEvent(new CustomerChangedEvent(
+                id, customerDTO.getFirstName(), customerDTO.getLastName(), ChangeType.PATCHED));
 
-                    Customer patchedCustomer = customerRepository.save(customer);
+        SparseCustomerDTO patchedDTO = new SparseCustomerDTO();
+        patchedDTO.setId(id);
+        patchedDTO.setFirstName(customerDTO.getFirstName());
+        patchedDTO.setLastName(customerDTO.getLastName());
+        patchedDTO.setVersion(expectedVersion == null ? null : expectedVersion + 1);
+        return patchedDTO;
+    }
 
-                    CustomerDTO returnDTO = customerMapper.customerToCustomerDTO(patchedCustomer);
-                    returnDTO.setCustomerUrl(getCustomerUrl(patchedCustomer.getId()));
+    /**
+     * Patches every selected customer with set-based {@code UPDATE}s in one transaction, rather
+     * than one read-modify-write per customer. Results follow the request order for ids,
+     * reporting missing ones as not found, and id order for a filter. A filter matching more than
+     * {@value #MAX_BULK_SIZE} customers is refused before anything is written.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true)
+    public List<CustomerBulkResultDTO> patchCustomers(CustomerBulkChangeDTO change) {
+        Map<String, Object> values = change.getPatch() == null ? Collections.emptyMap() : names(change.getPatch());
+        if (values.isEmpty()) {
+            throw new BadRequestException("Bulk patch needs a patch with at least one name");
+        }
+
+        List<Customer> updated;
+        try {
+            updated = customerRepository.updateAllWhere(bulkConditions(change), values, MAX_BULK_SIZE);
+        } catch (IncorrectResultSizeDataAccessException e) {
+            throw tooManyMatches();
+        }
+
+        // set-based statements skip the entity listener, so the changes are announced here
+        updated.forEach(customer -> eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId(),
+                change.getPatch().getFirstName(), change.getPatch().getLastName(), ChangeType.PATCHED)));
+
+        return bulkResults(change.getIds(), updated, CustomerBulkResultDTO.Outcome.UPDATED);
+    }
+
+    /**
+     * Deletes every selected customer with set-based {@code DELETE}s in one transaction, rather
+     * than a select and delete per customer. Results are ordered as for {@link #patchCustomers}.
+     */
+    @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true)
+    public List<CustomerBulkResultDTO> deleteCustomers(CustomerBulkChangeDTO change) {
+        if (change.getPatch() != null) {
+            throw new BadRequestException("Bulk delete takes no patch");
+        }
+
+        List<Customer> deleted;
+        try {
+            deleted = customerRepository.deleteAllWhere(bulkConditions(change), MAX_BULK_SIZE);
+        } catch (IncorrectResultSizeDataAccessException e) {
+            throw tooManyMatches();
+        }
+
+        deleted.forEach(customer -> eventPublisher.publishEvent(new CustomerChangedEvent(
+                customer.getId(), customer.getFirstName(), customer.getLastName(), ChangeType.DELETED)));
+
+        return bulkResults(change.getIds(), deleted, CustomerBulkResultDTO.Outcome.DELETED);
+    }
+
+    private static Map<String, Object> bulkConditions(CustomerBulkChangeDTO change) {
+        if ((change.getIds() == null) == (change.getFilter() == null)) {
+            throw new BadRequestException("Select customers by either ids or filter");
+        }
+
+        if (change.getIds() != null) {
+            if (change.getIds().isEmpty()) {
+                throw new BadRequestException("ids must not be empty");
+            }
+            if (change.getIds().size() > MAX_BULK_SIZE) {
+                throw new BadRequestException("At most " + MAX_BULK_SIZE + " ids per request");
+            }
+            return Collections.singletonMap(ID_ATTRIBUTE, new LinkedHashSet<>(change.getIds()));
+        }
+
+        Map<String, Object> conditions = names(change.getFilter());
+        if (conditions.isEmpty()) {
+            throw new BadRequestException("filter needs at least one name");
+        }
+        return conditions;
+    }
+
+    private static BadRequestException tooManyMatches() {
+        return new BadRequestException("filter matches more than " + MAX_BULK_SIZE + " customers");
+    }
+
+    private List<CustomerBulkResultDTO> bulkResults(List<Long> ids, List<Customer> changed,
+                                                    CustomerBulkResultDTO.Outcome outcome) {
+        Function<Customer, CustomerBulkResultDTO> toResult = customer -> new CustomerBulkResultDTO(customer.getId(), outcome,
+                outcome == CustomerBulkResultDTO.Outcome.UPDATED ? customerMapper.customerToCustomerDTO(customer) : null);
+
+        if (ids == null) {
+            return changed.stream().map(toResult).collect(Collectors.toList());
+        }
+
+        Map<Long, Customer> changedById = new HashMap<>(changed.size() * 2);
+        changed.forEach(customer -> changedById.put(customer.getId(), customer));
+
+        return new LinkedHashSet<>(ids).stream()
+                .map(id -> {
+                    Customer customer = changedById.get(id);
+                    return customer == null
+                            ? new CustomerBulkResultDTO(id, CustomerBulkResultDTO.Outcome.NOT_FOUND, null)
+                            : toResult.apply(customer);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The non-null names of {@code customerDTO}, keyed by attribute.
+     */
+    private static Map<String, Object> names(CustomerDTO customerDTO) {
+        Map<String, Object> names = new LinkedHashMap<>();
+        if (customerDTO.getFirstName() != null) {
+            names.put(CustomerField.FIRST_NAME.getAttribute(), customerDTO.getFirstName());
+        }
+        if (customerDTO.getLastName() != null) {
+            names.put(CustomerField.LAST_NAME.getAttribute(), customerDTO.getLastName());
+        }
+        return names;
+    }
 
-                    return returnDTO;
-                }).orElseThrow(ResourceNotFoundException::new);
+    /**
+     * Enforces a client supplied (If-Match) version; {@code null} means unconditional.
+     */
+    private void checkVersion(Customer customer, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Customer.class, customer.getId());
+        }
     }
 
     @Override
+    @Timed(value = MetricsConfig.CUSTOMER_SERVICE_TIMER, histogram = true)
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public void deleteCustomerById(Long id) {
         customerRepository.deleteById(id);
     }
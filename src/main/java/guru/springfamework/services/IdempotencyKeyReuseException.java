@@ -0,0 +1,22 @@
+package guru.springfamework.services;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException() {
+    }
+
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+
+    public IdempotencyKeyReuseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public IdempotencyKeyReuseException(Throwable cause) {
+        super(cause);
+    }
+
+    public IdempotencyKeyReuseException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
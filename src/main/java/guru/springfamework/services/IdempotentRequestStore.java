@@ -0,0 +1,99 @@
+package guru.springfamework.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key} header so a retry
+ * gets the original response instead of repeating the write. Entries hold the key, a hash of
+ * the request body and the (possibly still running) result, and expire after a fixed TTL.
+ */
+@Component
+public class IdempotentRequestStore {
+
+    public static final String CACHE_NAME = "idempotency";
+
+    private final Cache<String, IdempotentRequest> requests;
+    private final ObjectMapper objectMapper;
+
+    public IdempotentRequestStore(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  @Value("${app.idempotency.maximum-size}") long maximumSize,
+                                  @Value("${app.idempotency.ttl}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.requests = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // Same tag keys as the Spring-managed caches, which Prometheus requires for a shared meter name
+        CaffeineCacheMetrics.monitor(meterRegistry, requests, CACHE_NAME,
+                "name", CACHE_NAME, "cacheManager", "idempotentRequestStore");
+    }
+
+    /**
+     * Runs {@code action} for the first request with this key and hands every later request with
+     * the same key and body the same result, including callers that arrive while it is still
+     * running. A failed result is forgotten so the client can retry. Reusing a key with a
+     * different body throws {@link IdempotencyKeyReuseException}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Object request, Supplier<CompletableFuture<T>> action) {
+        String requestHash = hash(request);
+        IdempotentRequest candidate = new IdempotentRequest(requestHash);
+
+        IdempotentRequest existing = requests.asMap().putIfAbsent(key, candidate);
+        if (existing != null) {
+            if (!existing.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyReuseException("Idempotency-Key " + key + " was already used with a different request");
+            }
+            return (CompletableFuture<T>) (CompletableFuture<?>) existing.response;
+        }
+
+        try {
+            action.get().whenComplete((result, failure) -> {
+                if (failure != null) {
+                    requests.asMap().remove(key, candidate);
+                    candidate.response.completeExceptionally(failure);
+                } else {
+                    candidate.response.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            requests.asMap().remove(key, candidate);
+            candidate.response.completeExceptionally(e);
+            throw e;
+        }
+
+        return (CompletableFuture<T>) (CompletableFuture<?>) candidate.response;
+    }
+
+    private String hash(Object request) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be hashed", e);
+        }
+    }
+
+    private static final class IdempotentRequest {
+
+        private final String requestHash;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private IdempotentRequest(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
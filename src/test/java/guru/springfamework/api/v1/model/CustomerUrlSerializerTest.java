@@ -0,0 +1,65 @@
+package guru.springfamework.api.v1.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CustomerUrlSerializerTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void writesCustomerUrlFromId() throws Exception {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("Akash");
+        customerDTO.setId(1234L);
+
+        assertEquals("{\"firstName\":\"Akash\",\"lastName\":null,\"customer_url\":\"/api/v1/customers/1234\"}",
+                objectMapper.writeValueAsString(customerDTO));
+    }
+
+    @Test
+    public void writesUrlsOfEveryLength() throws Exception {
+        for (long id : new long[]{0L, 9L, 10L, Long.MAX_VALUE}) {
+            CustomerDTO customerDTO = new SparseCustomerDTO();
+            customerDTO.setId(id);
+
+            assertEquals("{\"customer_url\":\"/api/v1/customers/" + id + "\"}",
+                    objectMapper.writeValueAsString(customerDTO));
+        }
+    }
+
+    @Test
+    public void sparseCustomerLeavesOutUnselectedFields() throws Exception {
+        CustomerDTO customerDTO = new SparseCustomerDTO();
+        customerDTO.setLastName("Jagdale");
+        customerDTO.setId(1234L);
+
+        assertEquals("{\"lastName\":\"Jagdale\",\"customer_url\":\"/api/v1/customers/1234\"}",
+                objectMapper.writeValueAsString(customerDTO));
+    }
+
+    @Test
+    public void customerUrlIsReadOnly() throws Exception {
+        CustomerDTO customerDTO = objectMapper.readValue(
+                "{\"firstName\":\"Akash\",\"customer_url\":\"/api/v1/customers/99\"}", CustomerDTO.class);
+
+        assertEquals("Akash", customerDTO.getFirstName());
+        assertNull(customerDTO.getId());
+    }
+
+    @Test
+    public void appendDigits() {
+        char[] buffer = new char[20];
+
+        assertEquals("0", new String(buffer, 0, CustomerUrlSerializer.appendDigits(0L, buffer, 0)));
+        assertEquals("7", new String(buffer, 0, CustomerUrlSerializer.appendDigits(7L, buffer, 0)));
+        assertEquals("1000", new String(buffer, 0, CustomerUrlSerializer.appendDigits(1000L, buffer, 0)));
+        assertEquals(String.valueOf(Long.MAX_VALUE),
+                new String(buffer, 0, CustomerUrlSerializer.appendDigits(Long.MAX_VALUE, buffer, 0)));
+        assertEquals(String.valueOf(Long.MIN_VALUE),
+                new String(buffer, 0, CustomerUrlSerializer.appendDigits(Long.MIN_VALUE, buffer, 0)));
+    }
+}
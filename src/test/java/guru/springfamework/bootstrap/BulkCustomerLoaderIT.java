@@ -0,0 +1,98 @@
+package guru.springfamework.bootstrap;
+
+import guru.springfamework.domain.Customer;
+import guru.springfamework.repositories.CustomerRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class BulkCustomerLoaderIT {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Autowired
+    BulkCustomerLoader bulkCustomerLoader;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    long maxIdBefore;
+
+    @Before
+    public void setUp() throws Exception {
+        maxIdBefore = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from customer", Long.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        jdbcTemplate.update("delete from customer where id > ?", maxIdBefore);
+    }
+
+    @Test
+    public void syntheticCustomersAreReproducible() throws Exception {
+        assertEquals(2500, bulkCustomerLoader.generate(2500, 7L));
+        List<String> firstRun = loadedNames();
+
+        jdbcTemplate.update("delete from customer where id > ?", maxIdBefore);
+        bulkCustomerLoader.generate(2500, 7L);
+
+        assertEquals(2500, firstRun.size());
+        assertEquals(firstRun, loadedNames());
+    }
+
+    @Test
+    public void loadsCsvAndSkipsBadRows() throws Exception {
+        File csv = temporaryFolder.newFile("customers.csv");
+        Files.write(csv.toPath(), Arrays.asList(
+                "firstName,lastName", "Fiona,Glenanne", "\"Sam\",\"Axe, Jr.\"", "broken"), StandardCharsets.UTF_8);
+
+        assertEquals(2, bulkCustomerLoader.loadFile(csv.toPath()));
+        assertEquals(Arrays.asList("Fiona Glenanne", "Sam Axe, Jr."), loadedNames());
+    }
+
+    @Test
+    public void loadsNdjsonAndKeepsJpaInsertsClear() throws Exception {
+        File ndjson = temporaryFolder.newFile("customers.ndjson");
+        Files.write(ndjson.toPath(), Arrays.asList(
+                "{\"firstName\":\"Michael\",\"lastName\":\"Westen\"}",
+                "{\"firstName\":\"Jesse\",\"lastName\":\"Porter\"}"), StandardCharsets.UTF_8);
+
+        assertEquals(2, bulkCustomerLoader.loadFile(ndjson.toPath()));
+        assertEquals(Arrays.asList("Michael Westen", "Jesse Porter"), loadedNames());
+
+        Customer customer = new Customer();
+        customer.setFirstName("Madeline");
+        customer.setLastName("Westen");
+        Long id = customerRepository.saveAndFlush(customer).getId();
+
+        assertTrue(id > maxIdBefore);
+        assertEquals(3, loadedNames().size());
+    }
+
+    private List<String> loadedNames() {
+        return jdbcTemplate.queryForList(
+                "select first_name || ' ' || last_name from customer where id > ? order by id", String.class, maxIdBefore);
+    }
+}
@@ -0,0 +1,57 @@
+package guru.springfamework.bootstrap;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class SequenceAlignerIT {
+
+    public static final long LEGACY_ID = 5000L;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SequenceAligner sequenceAligner;
+
+    @After
+    public void tearDown() throws Exception {
+        jdbcTemplate.update("delete from customer where id = ?", LEGACY_ID);
+        sequenceAligner.align("customer", "customer_seq");
+    }
+
+    @Test
+    public void sequenceIsMovedPastExistingIds() throws Exception {
+        jdbcTemplate.update("insert into customer (id, first_name, last_name, version) values (?, 'Legacy', 'Row', 0)",
+                LEGACY_ID);
+
+        sequenceAligner.align("customer", "customer_seq");
+
+        assertTrue(nextValue() > LEGACY_ID);
+    }
+
+    @Test
+    public void incrementFollowsAllocationSizeWithoutMovingBackwards() throws Exception {
+        long before = nextValue();
+
+        new SequenceAligner(jdbcTemplate, 100, true).align("customer", "customer_seq");
+
+        assertEquals(100L, jdbcTemplate.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = 'CUSTOMER_SEQ'", Long.class)
+                .longValue());
+        assertTrue(nextValue() > before);
+    }
+
+    private long nextValue() {
+        return jdbcTemplate.queryForObject("select next value for customer_seq", Long.class);
+    }
+}
@@ -0,0 +1,40 @@
+package guru.springfamework.config;
+
+import guru.springfamework.controllers.v1.CategoryController;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MetricsConfigTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void prometheusExposesRequestServiceAndPersistenceMetrics() throws Exception {
+        mockMvc.perform(get(CategoryController.BASE_URL + "/Fruits"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("category_service_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections")))
+                .andExpect(content().string(containsString("hibernate_query_executions")))
+                .andExpect(content().string(containsString("hibernate_cache_query_requests")))
+                .andExpect(content().string(containsString("cache_gets_total")))
+                .andExpect(content().string(containsString("executor_queued_threads{name=\"databaseExecutor\"")));
+    }
+}
@@ -0,0 +1,51 @@
+package guru.springfamework.config;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.assertEquals;
+
+public class VirtualThreadConfigTest {
+
+    @Test
+    public void boundedExecutorRejectsOnceLimitReached() {
+        List<Runnable> started = new ArrayList<>();
+        VirtualThreadConfig.BoundedExecutor executor =
+                new VirtualThreadConfig.BoundedExecutor(started::add, new Semaphore(2));
+
+        executor.execute(() -> { });
+        executor.execute(() -> { });
+        assertEquals(2, executor.inFlight());
+
+        try {
+            executor.execute(() -> { });
+        } catch (RejectedExecutionException expected) {
+            started.get(0).run();
+            assertEquals(1, executor.inFlight());
+
+            executor.execute(() -> { });
+            assertEquals(2, executor.inFlight());
+            return;
+        }
+        throw new AssertionError("Expected RejectedExecutionException");
+    }
+
+    @Test
+    public void boundedExecutorReleasesPermitWhenDelegateRejects() {
+        VirtualThreadConfig.BoundedExecutor executor = new VirtualThreadConfig.BoundedExecutor(task -> {
+            throw new RejectedExecutionException("shut down");
+        }, new Semaphore(1));
+
+        try {
+            executor.execute(() -> { });
+        } catch (RejectedExecutionException expected) {
+            assertEquals(0, executor.inFlight());
+            return;
+        }
+        throw new AssertionError("Expected RejectedExecutionException");
+    }
+}
@@ -1,26 +1,40 @@
 package guru.springfamework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.domain.ChangeType;
+import guru.springfamework.domain.CategoryChangedEvent;
 import guru.springfamework.services.CategoryService;
 import guru.springfamework.services.ResourceNotFoundException;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StreamUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,7 +45,8 @@ public class CategoryControllerTest {
     @Mock
     CategoryService categoryService;
 
-    @InjectMocks
+    CategoryListBody categoryListBody;
+
     CategoryController categoryController;
 
     MockMvc mockMvc;
@@ -39,6 +54,8 @@ public class CategoryControllerTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        categoryListBody = new CategoryListBody(categoryService, new ObjectMapper());
+        categoryController = new CategoryController(categoryService, categoryListBody);
 
         mockMvc = MockMvcBuilders.standaloneSetup(categoryController)
                 .setControllerAdvice(new RestResponseEntityExceptionHandler())
@@ -62,7 +79,67 @@ public class CategoryControllerTest {
         mockMvc.perform(get(CategoryController.BASE_URL)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
                 .andExpect(jsonPath("$.categories", hasSize(2)));
+
+        mockMvc.perform(get(CategoryController.BASE_URL));
+
+        // serialized once, then served from the precomputed body
+        verify(categoryService, times(1)).getAllCategories();
+    }
+
+    @Test
+    public void testListCategoriesGzip() throws Exception {
+        CategoryDTO category1 = new CategoryDTO();
+        category1.setId(1l);
+        category1.setName(NAME);
+
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList(category1));
+
+        MockHttpServletResponse response = mockMvc.perform(get(CategoryController.BASE_URL)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse();
+
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("{\"categories\":[{\"id\":1,\"name\":\"Jim\"}]}",
+                    StreamUtils.copyToString(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testListCategoriesNotModified() throws Exception {
+        CategoryDTO category1 = new CategoryDTO();
+        category1.setId(1l);
+        category1.setName(NAME);
+        category1.setVersion(0L);
+
+        when(categoryService.getAllCategories()).thenReturn(Arrays.asList(category1));
+
+        String eTag = mockMvc.perform(get(CategoryController.BASE_URL))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(CategoryController.BASE_URL)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // the gzip representation has its own tag
+        mockMvc.perform(get(CategoryController.BASE_URL)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        category1.setName("Bob");
+        categoryListBody.onCategoryChanged(new CategoryChangedEvent(1L, "Bob", ChangeType.CREATED));
+
+        mockMvc.perform(get(CategoryController.BASE_URL)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[0].name", equalTo("Bob")));
     }
 
     @Test
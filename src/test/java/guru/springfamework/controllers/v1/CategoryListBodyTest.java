@@ -0,0 +1,20 @@
+package guru.springfamework.controllers.v1;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CategoryListBodyTest {
+
+    @Test
+    public void acceptsGzip() {
+        assertTrue(CategoryListBody.acceptsGzip("gzip"));
+        assertTrue(CategoryListBody.acceptsGzip("deflate, GZIP;q=0.8"));
+        assertTrue(CategoryListBody.acceptsGzip("*"));
+        assertFalse(CategoryListBody.acceptsGzip(null));
+        assertFalse(CategoryListBody.acceptsGzip("br, deflate"));
+        assertFalse(CategoryListBody.acceptsGzip("gzip;q=0"));
+        assertFalse(CategoryListBody.acceptsGzip("gzip; q=0.000"));
+    }
+}
@@ -0,0 +1,154 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.domain.ChangeType;
+import guru.springfamework.domain.CustomerChangedEvent;
+import guru.springfamework.services.ChangeFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class ChangeFeedControllerTest {
+
+    private static final int BUFFER_SIZE = 4;
+    private static final int HISTORY_SIZE = 16;
+
+    ChangeFeed changeFeed;
+
+    String epoch;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        changeFeed = new ChangeFeed(new ObjectMapper(), new SimpleMeterRegistry(), BUFFER_SIZE, HISTORY_SIZE, 1,
+                Duration.ofMinutes(1), Duration.ofSeconds(5));
+        epoch = changeFeed.getEpoch();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new ChangeFeedController(changeFeed)).build();
+    }
+
+    @After
+    public void tearDown() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    public void streamsCommittedChangesWithSequenceIds() throws Exception {
+        MvcResult result = subscribe(null);
+
+        changeFeed.onCustomerChanged(new CustomerChangedEvent(1L, "Akash", null, ChangeType.PATCHED));
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(2L, "Fruits", ChangeType.DELETED));
+
+        awaitContent(result,
+                "id:" + epoch + "-1\nevent:customer\ndata:{\"type\":\"patched\",\"id\":1,\"firstName\":\"Akash\",\"lastName\":null}\n\n"
+                        + "id:" + epoch + "-2\nevent:category\ndata:{\"type\":\"deleted\",\"id\":2,\"name\":\"Fruits\"}\n\n");
+    }
+
+    @Test
+    public void resumesAfterLastEventId() throws Exception {
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(1L, "Fruits", ChangeType.CREATED));
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(2L, "Dried", ChangeType.CREATED));
+
+        MvcResult result = mockMvc.perform(get(ChangeFeedController.BASE_URL)
+                .header(ChangeFeedController.LAST_EVENT_ID_HEADER, epoch + "-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(3L, "Fresh", ChangeType.CREATED));
+
+        awaitContent(result,
+                "id:" + epoch + "-2\nevent:category\ndata:{\"type\":\"created\",\"id\":2,\"name\":\"Dried\"}\n\n"
+                        + "id:" + epoch + "-3\nevent:category\ndata:{\"type\":\"created\",\"id\":3,\"name\":\"Fresh\"}\n\n");
+    }
+
+    @Test
+    public void resumeBeyondTheBufferCatchesUpFromTheHistory() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        for (long id = 1; id <= HISTORY_SIZE; id++) {
+            changeFeed.onCategoryChanged(new CategoryChangedEvent(id, "Category " + id, ChangeType.CREATED));
+            if (id > 1) {
+                expected.append(categoryCreated(id));
+            }
+        }
+
+        MvcResult result = subscribe(epoch + "-1");
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(HISTORY_SIZE + 1L, "Category " + (HISTORY_SIZE + 1), ChangeType.CREATED));
+        expected.append(categoryCreated(HISTORY_SIZE + 1L));
+
+        awaitContent(result, expected.toString());
+    }
+
+    @Test
+    public void resumeBeyondTheHistoryIsToldToResync() throws Exception {
+        for (long id = 1; id <= HISTORY_SIZE + 1; id++) {
+            changeFeed.onCategoryChanged(new CategoryChangedEvent(id, "Category " + id, ChangeType.CREATED));
+        }
+
+        MvcResult result = subscribe(epoch + "-0");
+
+        awaitContent(result, resync(HISTORY_SIZE + 1));
+    }
+
+    @Test
+    public void unknownEventIdIsToldToResync() throws Exception {
+        MvcResult result = subscribe(epoch + "-42");
+
+        awaitContent(result, resync(0));
+    }
+
+    @Test
+    public void eventIdFromAnEarlierRunIsToldToResync() throws Exception {
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(1L, "Fruits", ChangeType.CREATED));
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(2L, "Dried", ChangeType.CREATED));
+
+        // same sequence number, but issued before a restart
+        MvcResult result = subscribe("0-1");
+
+        awaitContent(result, resync(2));
+    }
+
+    @Test
+    public void eventIdWithoutEpochIsToldToResync() throws Exception {
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(1L, "Fruits", ChangeType.CREATED));
+
+        MvcResult result = subscribe("1");
+
+        awaitContent(result, resync(1));
+    }
+
+    private String categoryCreated(long id) {
+        return "id:" + epoch + "-" + id + "\nevent:category\ndata:{\"type\":\"created\",\"id\":" + id
+                + ",\"name\":\"Category " + id + "\"}\n\n";
+    }
+
+    private String resync(long sequence) {
+        return "id:" + epoch + "-" + sequence + "\nevent:resync\ndata:" + epoch + "-" + sequence + "\n\n";
+    }
+
+    private MvcResult subscribe(String after) throws Exception {
+        return mockMvc.perform(after == null
+                ? get(ChangeFeedController.BASE_URL)
+                : get(ChangeFeedController.BASE_URL).param("after", after))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(result.getResponse().getContentAsString()) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, result.getResponse().getContentAsString());
+    }
+}
@@ -1,28 +1,49 @@
 package guru.springfamework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CustomerBulkChangeDTO;
+import guru.springfamework.api.v1.model.CustomerBulkResultDTO;
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerField;
+import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.api.v1.model.CustomerLookupDTO;
+import guru.springfamework.api.v1.model.SparseCustomerDTO;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.services.BadRequestException;
 import guru.springfamework.services.CustomerService;
+import guru.springfamework.services.IdempotentRequestStore;
 import guru.springfamework.services.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import static guru.springfamework.controllers.v1.AbstractRestControllerTest.asJsonString;
+import static guru.springfamework.controllers.v1.AbstractRestControllerTest.performAsync;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,11 +52,13 @@ public class CustomerControllerTest {
     public static final String FIRST_NAME = "Akash";
     public static final String LAST_NAME = "Jagdale";
     public static final String CUSTOMER_URL = "/api/v1/customers/1";
+    public static final Long ID = 1L;
 
     @Mock
     CustomerService customerService;
 
-    @InjectMocks
+    IdempotentRequestStore idempotentRequestStore;
+
     CustomerController customerController;
 
     MockMvc mockMvc;
@@ -43,6 +66,9 @@ public class CustomerControllerTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        idempotentRequestStore = new IdempotentRequestStore(
+                new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        customerController = new CustomerController(customerService, idempotentRequestStore, Runnable::run);
 
         mockMvc = MockMvcBuilders.standaloneSetup(customerController)
                 .setControllerAdvice(new RestResponseEntityExceptionHandler())
@@ -63,27 +89,167 @@ public class CustomerControllerTest {
 
         List<CustomerDTO> customers = Arrays.asList(customer1, customer2);
 
-        when(customerService.getCustomers()).thenReturn(customers);
+        when(customerService.getCustomerPage(null, 100)).thenReturn(new CustomerListDTO(customers, null));
 
-        mockMvc.perform(get("/api/v1/customers/")
+        performAsync(mockMvc, get("/api/v1/customers/")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.customers", hasSize(2)));
     }
 
+    @Test
+    public void getAllCustomersAfterCursor() throws Exception {
+        CustomerDTO customer1 = new CustomerDTO();
+        customer1.setFirstName(FIRST_NAME);
+        customer1.setLastName(LAST_NAME);
+
+        String nextPageUrl = CustomerController.BASE_URL + "?after=11&limit=1";
+
+        when(customerService.getCustomerPage(10L, 1))
+                .thenReturn(new CustomerListDTO(Arrays.asList(customer1), nextPageUrl));
+
+        performAsync(mockMvc, get(CustomerController.BASE_URL)
+                .param("after", "10")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.next_page_url", equalTo(nextPageUrl)));
+    }
+
+    @Test
+    public void getAllCustomersWithFields() throws Exception {
+        CustomerDTO customer1 = new SparseCustomerDTO();
+        customer1.setLastName(LAST_NAME);
+        customer1.setId(ID);
+
+        when(customerService.getCustomerPage(null, 100, EnumSet.of(CustomerField.CUSTOMER_URL, CustomerField.LAST_NAME)))
+                .thenReturn(new CustomerListDTO(Arrays.asList(customer1), null));
+
+        performAsync(mockMvc, get(CustomerController.BASE_URL)
+                .param("fields", "customer_url, lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].customer_url", equalTo(CUSTOMER_URL)))
+                .andExpect(jsonPath("$.customers[0].lastName", equalTo(LAST_NAME)))
+                .andExpect(jsonPath("$.customers[0].firstName").doesNotExist());
+    }
+
+    @Test
+    public void getAllCustomersWithUnknownFieldIsBadRequest() throws Exception {
+        mockMvc.perform(get(CustomerController.BASE_URL)
+                .param("fields", "lastName,email"))
+                .andExpect(status().isBadRequest());
+
+        verifyZeroInteractions(customerService);
+    }
+
+    @Test
+    public void searchCustomers() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName(FIRST_NAME);
+        customer.setLastName(LAST_NAME);
+        customer.setId(ID);
+
+        when(customerService.searchCustomers("jag", 0, 100)).thenReturn(new CustomerListDTO(Arrays.asList(customer), null));
+
+        mockMvc.perform(get(CustomerController.BASE_URL)
+                .param("q", "jag"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.customers[0].customer_url", equalTo(CUSTOMER_URL)));
+    }
+
+    @Test
+    public void searchAndIdsTogetherAreBadRequest() throws Exception {
+        mockMvc.perform(get(CustomerController.BASE_URL)
+                .param("q", "a")
+                .param("ids", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Search with q or look up ids, not both"));
+
+        verifyZeroInteractions(customerService);
+    }
+
+    @Test
+    public void getCustomersByIds() throws Exception {
+        CustomerDTO customer1 = new CustomerDTO();
+        customer1.setFirstName(FIRST_NAME);
+        customer1.setId(ID);
+
+        when(customerService.getCustomersByIds(Arrays.asList(1L, 7L))).thenReturn(Arrays.asList(
+                new CustomerLookupDTO(1L, true, customer1),
+                new CustomerLookupDTO(7L, false, null)));
+
+        performAsync(mockMvc, get(CustomerController.BASE_URL)
+                .param("ids", "1,7")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(2)))
+                .andExpect(jsonPath("$.customers[0].customer.customer_url", equalTo(CUSTOMER_URL)))
+                .andExpect(jsonPath("$.customers[1].id", equalTo(7)))
+                .andExpect(jsonPath("$.customers[1].found", equalTo(false)))
+                .andExpect(jsonPath("$.customers[1].customer").doesNotExist());
+    }
+
+    @Test
+    public void getCustomersByIdsWithBlankIdAnswersWithTheServiceMessage() throws Exception {
+        when(customerService.getCustomersByIds(Arrays.asList(1L, null, 2L)))
+                .thenThrow(new BadRequestException("ids must not contain blank entries"));
+
+        performAsync(mockMvc, get(CustomerController.BASE_URL)
+                .param("ids", "1,,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("ids must not contain blank entries"));
+    }
+
     @Test
     public void getCustomerById() throws Exception {
         CustomerDTO customer1 = new CustomerDTO();
         customer1.setFirstName(FIRST_NAME);
         customer1.setLastName(LAST_NAME);
-        customer1.setCustomerUrl(CUSTOMER_URL);
+        customer1.setId(ID);
 
         when(customerService.getCustomerById(1L)).thenReturn(customer1);
 
-        mockMvc.perform(get(CUSTOMER_URL)
+        performAsync(mockMvc, get(CUSTOMER_URL)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.firstName", equalTo(FIRST_NAME)));
+                .andExpect(jsonPath("$.firstName", equalTo(FIRST_NAME)))
+                .andExpect(jsonPath("$.customer_url", equalTo(CUSTOMER_URL)));
+    }
+
+    @Test
+    public void getCustomerByIdWithFields() throws Exception {
+        CustomerDTO customer1 = new SparseCustomerDTO();
+        customer1.setFirstName(FIRST_NAME);
+        customer1.setVersion(3L);
+
+        when(customerService.getCustomerById(1L, EnumSet.of(CustomerField.FIRST_NAME))).thenReturn(customer1);
+
+        performAsync(mockMvc, get(CUSTOMER_URL)
+                .param("fields", "firstName"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().json("{\"firstName\":\"Akash\"}", true));
+
+        verify(customerService, never()).getCustomerById(1L);
+    }
+
+    @Test
+    public void getCustomerByIdNotModified() throws Exception {
+        CustomerDTO customer1 = new CustomerDTO();
+        customer1.setFirstName(FIRST_NAME);
+        customer1.setId(ID);
+        customer1.setVersion(3L);
+
+        when(customerService.getCustomerById(1L)).thenReturn(customer1);
+
+        performAsync(mockMvc, get(CUSTOMER_URL)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -95,11 +261,11 @@ public class CustomerControllerTest {
         CustomerDTO returnedDTO = new CustomerDTO();
         returnedDTO.setFirstName(customer.getFirstName());
         returnedDTO.setLastName(customer.getLastName());
-        returnedDTO.setCustomerUrl(CUSTOMER_URL);
+        returnedDTO.setId(ID);
 
         Mockito.when(customerService.createNewCustomer(any(CustomerDTO.class))).thenReturn(returnedDTO);
 
-        mockMvc.perform(post("/api/v1/customers/")
+        performAsync(mockMvc, post("/api/v1/customers/")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(customer)))
                 .andExpect(status().isCreated())
@@ -108,6 +274,89 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("$.customer_url", equalTo(CUSTOMER_URL)));
     }
 
+    @Test
+    public void createNewCustomerReplaysIdempotentRetry() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName(FIRST_NAME);
+        customer.setLastName(LAST_NAME);
+
+        CustomerDTO returnedDTO = new CustomerDTO();
+        returnedDTO.setFirstName(customer.getFirstName());
+        returnedDTO.setLastName(customer.getLastName());
+        returnedDTO.setId(ID);
+
+        Mockito.when(customerService.createNewCustomer(any(CustomerDTO.class))).thenReturn(returnedDTO);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            performAsync(mockMvc, post(CustomerController.BASE_URL)
+                    .header(CustomerController.IDEMPOTENCY_KEY, "retry-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(customer)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.customer_url", equalTo(CUSTOMER_URL)));
+        }
+
+        verify(customerService, times(1)).createNewCustomer(any(CustomerDTO.class));
+    }
+
+    @Test
+    public void createNewCustomerRejectsReusedIdempotencyKey() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName(FIRST_NAME);
+
+        Mockito.when(customerService.createNewCustomer(any(CustomerDTO.class))).thenReturn(customer);
+
+        performAsync(mockMvc, post(CustomerController.BASE_URL)
+                .header(CustomerController.IDEMPOTENCY_KEY, "reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(customer)))
+                .andExpect(status().isCreated());
+
+        customer.setFirstName("Someone else");
+
+        mockMvc.perform(post(CustomerController.BASE_URL)
+                .header(CustomerController.IDEMPOTENCY_KEY, "reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(customer)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("Idempotency-Key reused was already used with a different request"));
+
+        verify(customerService, times(1)).createNewCustomer(any(CustomerDTO.class));
+    }
+
+    @Test
+    public void createNewCustomers() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName(FIRST_NAME);
+        customer.setLastName(LAST_NAME);
+
+        CustomerDTO returnedDTO = new CustomerDTO();
+        returnedDTO.setFirstName(FIRST_NAME);
+        returnedDTO.setLastName(LAST_NAME);
+        returnedDTO.setId(ID);
+
+        Mockito.when(customerService.createNewCustomers(anyList())).thenReturn(Arrays.asList(returnedDTO, returnedDTO));
+
+        performAsync(mockMvc, post(CustomerController.BASE_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(Arrays.asList(customer, customer))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.customers", hasSize(2)))
+                .andExpect(jsonPath("$.customers[0].customer_url", equalTo(CUSTOMER_URL)));
+    }
+
+    @Test
+    public void createNewCustomersTooMany() throws Exception {
+        Mockito.when(customerService.createNewCustomers(anyList()))
+                .thenThrow(new BadRequestException("At most 1000 customers per request"));
+
+        performAsync(mockMvc, post(CustomerController.BASE_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("At most 1000 customers per request"));
+    }
+
     @Test
     public void updateCustomerTest() throws Exception {
 
@@ -118,11 +367,11 @@ public class CustomerControllerTest {
         CustomerDTO returnedDTO = new CustomerDTO();
         returnedDTO.setFirstName(customer.getFirstName());
         returnedDTO.setLastName(customer.getLastName());
-        returnedDTO.setCustomerUrl(CUSTOMER_URL);
+        returnedDTO.setId(ID);
 
         Mockito.when(customerService.saveCustomerByDTO(anyLong(), any(CustomerDTO.class))).thenReturn(returnedDTO);
 
-        mockMvc.perform(put("/api/v1/customers/1")
+        performAsync(mockMvc, put("/api/v1/customers/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(customer)))
                 .andExpect(status().isOk())
@@ -132,6 +381,117 @@ public class CustomerControllerTest {
 
     }
 
+    @Test
+    public void updateCustomerCreatesMissingCustomer() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName(FIRST_NAME);
+        customer.setLastName(LAST_NAME);
+
+        CustomerDTO returnedDTO = new CustomerDTO();
+        returnedDTO.setFirstName(FIRST_NAME);
+        returnedDTO.setLastName(LAST_NAME);
+        returnedDTO.setId(ID);
+        returnedDTO.setVersion(0L);
+
+        Mockito.when(customerService.saveCustomerByDTO(eq(1L), any(CustomerDTO.class))).thenReturn(returnedDTO);
+
+        performAsync(mockMvc, put("/api/v1/customers/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(customer)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.customer_url", equalTo(CUSTOMER_URL)));
+    }
+
+    @Test
+    public void patchCustomersInBulk() throws Exception {
+        CustomerDTO patch = new CustomerDTO();
+        patch.setLastName(LAST_NAME);
+
+        CustomerDTO patched = new CustomerDTO();
+        patched.setFirstName(FIRST_NAME);
+        patched.setLastName(LAST_NAME);
+        patched.setId(ID);
+
+        when(customerService.patchCustomers(new CustomerBulkChangeDTO(Arrays.asList(1L, 7L), null, patch)))
+                .thenReturn(Arrays.asList(
+                        new CustomerBulkResultDTO(1L, CustomerBulkResultDTO.Outcome.UPDATED, patched),
+                        new CustomerBulkResultDTO(7L, CustomerBulkResultDTO.Outcome.NOT_FOUND, null)));
+
+        performAsync(mockMvc, patch(CustomerController.BASE_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,7],\"patch\":{\"lastName\":\"" + LAST_NAME + "\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(2)))
+                .andExpect(jsonPath("$.customers[0].outcome", equalTo("updated")))
+                .andExpect(jsonPath("$.customers[0].customer.customer_url", equalTo(CUSTOMER_URL)))
+                .andExpect(jsonPath("$.customers[1].outcome", equalTo("not_found")))
+                .andExpect(jsonPath("$.customers[1].customer").doesNotExist());
+    }
+
+    @Test
+    public void deleteCustomersInBulkByFilter() throws Exception {
+        CustomerDTO filter = new CustomerDTO();
+        filter.setLastName(LAST_NAME);
+
+        when(customerService.deleteCustomers(new CustomerBulkChangeDTO(null, filter, null)))
+                .thenReturn(Arrays.asList(new CustomerBulkResultDTO(1L, CustomerBulkResultDTO.Outcome.DELETED, null)));
+
+        performAsync(mockMvc, delete(CustomerController.BASE_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"lastName\":\"" + LAST_NAME + "\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].id", equalTo(1)))
+                .andExpect(jsonPath("$.customers[0].outcome", equalTo("deleted")));
+    }
+
+    @Test
+    public void patchCustomerWithIfMatch() throws Exception {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setFirstName(FIRST_NAME);
+
+        CustomerDTO returnedDTO = new CustomerDTO();
+        returnedDTO.setFirstName(FIRST_NAME);
+        returnedDTO.setId(ID);
+        returnedDTO.setVersion(4L);
+
+        Mockito.when(customerService.patchCustomer(eq(1L), argThat(dto -> Long.valueOf(3L).equals(dto.getVersion()))))
+                .thenReturn(returnedDTO);
+
+        performAsync(mockMvc, patch("/api/v1/customers/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(customer)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void updateCustomerWithWildcardIfMatchNeedsAnExistingCustomer() throws Exception {
+        Mockito.when(customerService.saveCustomerByDTO(eq(1L), any(CustomerDTO.class), eq(false)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+
+        performAsync(mockMvc, put("/api/v1/customers/1")
+                .header(HttpHeaders.IF_MATCH, "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new CustomerDTO())))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(customerService, never()).saveCustomerByDTO(anyLong(), any(CustomerDTO.class));
+    }
+
+    @Test
+    public void patchCustomerVersionMismatch() throws Exception {
+        Mockito.when(customerService.patchCustomer(anyLong(), any(CustomerDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, 1L));
+
+        performAsync(mockMvc, patch("/api/v1/customers/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new CustomerDTO())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void testPatchCustomer() throws Exception {
         CustomerDTO customer = new CustomerDTO();
@@ -141,11 +501,11 @@ public class CustomerControllerTest {
         CustomerDTO returnedDTO = new CustomerDTO();
         returnedDTO.setFirstName(customer.getFirstName());
         returnedDTO.setLastName("Some Last Name");
-        returnedDTO.setCustomerUrl(CUSTOMER_URL);
+        returnedDTO.setId(ID);
 
         Mockito.when(customerService.patchCustomer(anyLong(), any(CustomerDTO.class))).thenReturn(returnedDTO);
 
-        mockMvc.perform(patch("/api/v1/customers/1")
+        performAsync(mockMvc, patch("/api/v1/customers/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(customer)))
                 .andExpect(status().isOk())
@@ -156,7 +516,7 @@ public class CustomerControllerTest {
 
     @Test
     public void deleteCustomer() throws Exception {
-        mockMvc.perform(delete("/api/v1/customers/1")
+        performAsync(mockMvc, delete("/api/v1/customers/1")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
@@ -166,8 +526,23 @@ public class CustomerControllerTest {
     @Test
     public void testGetByIdNotFound() throws Exception {
         Mockito.when(customerService.getCustomerById(anyLong())).thenThrow(ResourceNotFoundException.class);
-        mockMvc.perform(get(CustomerController.BASE_URL + "/122")
+        performAsync(mockMvc, get(CustomerController.BASE_URL + "/122")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testServiceUnavailableWhenExecutorSaturated() throws Exception {
+        CustomerController saturatedController = new CustomerController(customerService, idempotentRequestStore, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        MockMvc saturatedMockMvc = MockMvcBuilders.standaloneSetup(saturatedController)
+                .setControllerAdvice(new RestResponseEntityExceptionHandler())
+                .build();
+
+        saturatedMockMvc.perform(get(CUSTOMER_URL))
+                .andExpect(status().isServiceUnavailable());
+
+        verifyZeroInteractions(customerService);
+    }
+}
@@ -0,0 +1,61 @@
+package guru.springfamework.controllers.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.services.CustomerService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CustomerExportControllerTest {
+
+    @Mock
+    CustomerService customerService;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new CustomerExportController(customerService, new ObjectMapper()))
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void exportCustomersAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CustomerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(customer("Akash", "Jagdale", 1L));
+            consumer.accept(customer("Jonny", "Depp", 2L));
+            return null;
+        }).when(customerService).exportCustomers(any(Consumer.class));
+
+        mockMvc.perform(get(CustomerExportController.BASE_URL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CustomerExportController.NDJSON_VALUE))
+                .andExpect(content().string(
+                        "{\"firstName\":\"Akash\",\"lastName\":\"Jagdale\",\"customer_url\":\"/api/v1/customers/1\"}\n"
+                                + "{\"firstName\":\"Jonny\",\"lastName\":\"Depp\",\"customer_url\":\"/api/v1/customers/2\"}\n"));
+    }
+
+    private CustomerDTO customer(String firstName, String lastName, Long id) {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(firstName);
+        customerDTO.setLastName(lastName);
+        customerDTO.setId(id);
+        return customerDTO;
+    }
+}
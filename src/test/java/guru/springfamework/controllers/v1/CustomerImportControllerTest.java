@@ -0,0 +1,84 @@
+package guru.springfamework.controllers.v1;
+
+import guru.springfamework.api.v1.model.CustomerImportChunkDTO;
+import guru.springfamework.api.v1.model.CustomerImportDTO;
+import guru.springfamework.api.v1.model.CustomerImportErrorDTO;
+import guru.springfamework.services.BadRequestException;
+import guru.springfamework.services.CustomerImportService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.Reader;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CustomerImportControllerTest {
+
+    @Mock
+    CustomerImportService customerImportService;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new CustomerImportController(customerImportService))
+                .setControllerAdvice(new RestResponseEntityExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void importCustomersFromCsvBody() throws Exception {
+        when(customerImportService.importCustomers(ArgumentMatchers.any(Reader.class))).thenAnswer(invocation -> {
+            String body = FileCopyUtils.copyToString(invocation.<Reader>getArgument(0));
+
+            CustomerImportChunkDTO chunk = new CustomerImportChunkDTO();
+            chunk.setChunk(1);
+            chunk.setFirstLine(2);
+            chunk.setLastLine(3);
+            chunk.setAccepted(1);
+            chunk.setRejected(1);
+            chunk.getErrors().add(new CustomerImportErrorDTO(3, body.contains("Jürgen") ? "lastName must not be blank" : "?"));
+
+            CustomerImportDTO summary = new CustomerImportDTO();
+            summary.setAccepted(1);
+            summary.setRejected(1);
+            summary.getChunks().add(chunk);
+            return summary;
+        });
+
+        mockMvc.perform(post(CustomerImportController.BASE_URL)
+                .contentType(CustomerImportController.CSV_VALUE)
+                .content("firstName,lastName\nAkash,Jagdale\nJürgen,\n".getBytes("UTF-8")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", equalTo(1)))
+                .andExpect(jsonPath("$.chunks", hasSize(1)))
+                .andExpect(jsonPath("$.chunks[0].first_line", equalTo(2)))
+                .andExpect(jsonPath("$.chunks[0].errors[0].line", equalTo(3)))
+                .andExpect(jsonPath("$.chunks[0].errors[0].message", equalTo("lastName must not be blank")))
+                .andExpect(jsonPath("$.error").doesNotExist());
+    }
+
+    @Test
+    public void importWithoutHeaderIsBadRequest() throws Exception {
+        when(customerImportService.importCustomers(ArgumentMatchers.any(Reader.class)))
+                .thenThrow(new BadRequestException("CSV input is empty"));
+
+        mockMvc.perform(post(CustomerImportController.BASE_URL)
+                .contentType(CustomerImportController.CSV_VALUE)
+                .content(""))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,129 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CategoryDTO;
+import guru.springfamework.controllers.v1.CategoryController;
+import guru.springfamework.domain.Category;
+import guru.springfamework.repositories.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CategoryCacheIT {
+
+    public static final String NAME = "Grains";
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    CategoryService categoryService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    Statistics statistics;
+
+    @Before
+    public void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Category category = categoryRepository.findByName(NAME);
+        if (category != null) {
+            categoryRepository.delete(category);
+        }
+    }
+
+    @Test
+    public void warmCategoryReadsNeverReachTheDatabase() throws Exception {
+        categoryService.getAllCategories();
+        categoryRepository.findByName("Fruits");
+
+        long connects = statistics.getConnectCount();
+        long statements = statistics.getPrepareStatementCount();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(5, categoryService.getAllCategories().size());
+            assertEquals("Fruits", categoryRepository.findByName("Fruits").getName());
+        }
+
+        assertEquals(connects, statistics.getConnectCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(queryCacheHits + 20, statistics.getQueryCacheHitCount());
+        assertTrue(meterRegistry.get("hibernate.cache.query.requests").tag("result", "hit")
+                .functionCounter().count() >= 20);
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit").functionCounter());
+    }
+
+    @Test
+    public void writesInvalidateCachedQueries() throws Exception {
+        categoryService.getAllCategories();
+
+        Category category = new Category();
+        category.setName("Grain");
+        category = categoryRepository.save(category);
+        assertEquals(category.getId(), categoryRepository.findByName("Grain").getId());
+
+        category.setName(NAME);
+        categoryRepository.save(category);
+
+        List<String> names = categoryService.getAllCategories()
+                .stream()
+                .map(CategoryDTO::getName)
+                .collect(Collectors.toList());
+
+        assertTrue(names.contains(NAME));
+        assertEquals(6, names.size());
+        assertEquals(null, categoryRepository.findByName("Grain"));
+        assertEquals(NAME, categoryService.getCategoryByName(NAME).getName());
+    }
+
+    @Test
+    public void precomputedCategoryListFollowsWrites() throws Exception {
+        mockMvc.perform(get(CategoryController.BASE_URL))
+                .andExpect(jsonPath("$.categories", hasSize(5)));
+
+        Category category = new Category();
+        category.setName(NAME);
+        categoryRepository.save(category);
+
+        mockMvc.perform(get(CategoryController.BASE_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories", hasSize(6)))
+                .andExpect(jsonPath("$.categories[5].name", equalTo(NAME)));
+    }
+}
@@ -0,0 +1,62 @@
+package guru.springfamework.services;
+
+import guru.springfamework.domain.Category;
+import guru.springfamework.repositories.CategoryRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CategoryServiceIT {
+
+    public static final String NAME = "Berries";
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    CategoryService categoryService;
+
+    @After
+    public void tearDown() throws Exception {
+        Category category = categoryRepository.findByName(NAME);
+        if (category != null) {
+            categoryRepository.delete(category);
+        }
+    }
+
+    @Test
+    public void categoryIndexFollowsWrites() throws Exception {
+        assertEquals("Fruits", categoryService.getCategoryByName("Fruits").getName());
+
+        Category category = new Category();
+        category.setName(NAME);
+        Category saved = categoryRepository.save(category);
+
+        assertEquals(saved.getId(), categoryService.getCategoryByName(NAME).getId());
+
+        categoryRepository.delete(saved);
+
+        try {
+            categoryService.getCategoryByName(NAME);
+            fail("deleted category still served from the index");
+        } catch (ResourceNotFoundException expected) {
+        }
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    public void categoryNamesAreUnique() throws Exception {
+        Category duplicate = new Category();
+        duplicate.setName("Fruits");
+
+        categoryRepository.save(duplicate);
+    }
+}
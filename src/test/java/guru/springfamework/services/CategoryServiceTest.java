@@ -3,7 +3,10 @@ package guru.springfamework.services;
 import guru.springfamework.api.v1.mapper.CategoryMapper;
 import guru.springfamework.api.v1.model.CategoryDTO;
 import guru.springfamework.domain.Category;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.domain.ChangeType;
 import guru.springfamework.repositories.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
@@ -30,7 +33,7 @@ public class CategoryServiceTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository);
+        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository, new SimpleMeterRegistry());
     }
 
     @Test
@@ -50,11 +53,51 @@ public class CategoryServiceTest {
         category.setName(NAME);
         category.setId(ID);
 
-        Mockito.when(categoryRepository.findByName(ArgumentMatchers.anyString())).thenReturn(category);
+        Mockito.when(categoryRepository.findAll()).thenReturn(Arrays.asList(category));
 
         CategoryDTO categoryDTO = categoryService.getCategoryByName(NAME);
 
         assertEquals(Long.valueOf(ID), categoryDTO.getId());
         assertEquals(NAME, categoryDTO.getName());
     }
+
+    @Test
+    public void getCategoryByNameServedFromSnapshot() {
+        Category category = new Category();
+        category.setName(NAME);
+        category.setId(ID);
+
+        Mockito.when(categoryRepository.findAll()).thenReturn(Arrays.asList(category));
+
+        assertSame(categoryService.getCategoryByName(NAME), categoryService.getCategoryByName(NAME));
+
+        Mockito.verify(categoryRepository, Mockito.times(1)).findAll();
+        Mockito.verify(categoryRepository, Mockito.never()).findByName(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void categoryChangesCoalesceIntoOneRebuild() {
+        Category category = new Category();
+        category.setName(NAME);
+        category.setId(ID);
+
+        Mockito.when(categoryRepository.findAll()).thenReturn(Arrays.asList(category));
+        CategoryServiceImpl categoryServiceImpl = (CategoryServiceImpl) categoryService;
+        categoryServiceImpl.warmCategoryIndex();
+
+        for (long id = 1; id <= 3; id++) {
+            categoryServiceImpl.onCategoryChanged(new CategoryChangedEvent(id, NAME, ChangeType.UPDATED));
+        }
+        categoryService.getCategoryByName(NAME);
+        categoryService.getCategoryByName(NAME);
+
+        Mockito.verify(categoryRepository, Mockito.times(2)).findAll();
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getCategoryByNameNotFound() {
+        Mockito.when(categoryRepository.findAll()).thenReturn(Arrays.asList(new Category()));
+
+        categoryService.getCategoryByName(NAME);
+    }
 }
\ No newline at end of file
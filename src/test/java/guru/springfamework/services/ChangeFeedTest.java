@@ -0,0 +1,114 @@
+package guru.springfamework.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.config.MetricsConfig;
+import guru.springfamework.domain.CategoryChangedEvent;
+import guru.springfamework.domain.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeFeedTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    ChangeFeed changeFeed;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // one sender thread, so a blocked write would hold back every other subscriber
+        changeFeed = new ChangeFeed(new ObjectMapper(), meterRegistry, 4, 16, 1,
+                Duration.ofMinutes(1), Duration.ofMillis(50));
+    }
+
+    @After
+    public void tearDown() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    public void blockedWriteDoesNotHoldBackOtherSubscribers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        changeFeed.subscribe(null, slow);
+        changeFeed.subscribe(null, fast);
+
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(1L, "Fruits", ChangeType.CREATED));
+
+        assertTrue(fast.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get(MetricsConfig.CHANGE_FEED_STALLED).counter().count(), 0.0);
+        assertEquals(1.0, meterRegistry.get(MetricsConfig.CHANGE_FEED_SUBSCRIBERS).gauge().value(), 0.0);
+
+        // once the write returns, the stalled stream ends so its client reconnects
+        unblock.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void stalledWritesAddAtMostTheHeadroomInSenders() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        int slowCount = 1 + ChangeFeed.STALLED_SENDER_HEADROOM + 1;
+        for (int i = 0; i < slowCount; i++) {
+            changeFeed.subscribe(null, new RecordingEmitter(unblock));
+        }
+        RecordingEmitter fast = new RecordingEmitter(null);
+        changeFeed.subscribe(null, fast);
+
+        changeFeed.onCategoryChanged(new CategoryChangedEvent(1L, "Fruits", ChangeType.CREATED));
+
+        // the configured sender and every added one end up blocked; the rest wait for them
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stalledCount() < 1 + ChangeFeed.STALLED_SENDER_HEADROOM && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(200);
+        assertEquals(1 + ChangeFeed.STALLED_SENDER_HEADROOM, stalledCount(), 0.0);
+        assertEquals(1, fast.sent.getCount());
+
+        unblock.countDown();
+        assertTrue(fast.sent.await(5, TimeUnit.SECONDS));
+    }
+
+    private double stalledCount() {
+        return meterRegistry.get(MetricsConfig.CHANGE_FEED_STALLED).counter().count();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch unblock;
+        private final CountDownLatch sent = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (unblock != null) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.countDown();
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springfamework.services;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeRingTest {
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new ChangeRing<Long>(1).capacity());
+        assertEquals(8, new ChangeRing<Long>(5).capacity());
+        assertEquals(1024, new ChangeRing<Long>(1024).capacity());
+    }
+
+    @Test
+    public void fullRingRefusesUntilPolled() {
+        ChangeRing<Long> ring = new ChangeRing<>(2);
+
+        assertTrue(ring.offer(1L));
+        assertTrue(ring.offer(2L));
+        assertFalse(ring.offer(3L));
+
+        assertEquals(Long.valueOf(1L), ring.poll());
+        assertTrue(ring.offer(3L));
+        assertEquals(Long.valueOf(2L), ring.poll());
+        assertEquals(Long.valueOf(3L), ring.poll());
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void consumerSeesEveryElementInOrder() throws Exception {
+        ChangeRing<Long> ring = new ChangeRing<>(16);
+        long count = 200_000;
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> producer = executor.submit(() -> {
+                for (long i = 0; i < count; i++) {
+                    while (!ring.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+
+            for (long expected = 0; expected < count; ) {
+                Long element = ring.poll();
+                if (element == null) {
+                    Thread.yield();
+                } else {
+                    assertEquals(Long.valueOf(expected++), element);
+                }
+            }
+            producer.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(ring.isEmpty());
+    }
+}
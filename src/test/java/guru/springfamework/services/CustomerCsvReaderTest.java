@@ -0,0 +1,61 @@
+package guru.springfamework.services;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CustomerCsvReaderTest {
+
+    @Test
+    public void readsQuotedFieldsAndAnyHeaderOrder() throws Exception {
+        CustomerCsvReader reader = new CustomerCsvReader(new StringReader(
+                "id,last_name,First_Name\r\n"
+                        + "1,Jagdale,Akash\r\n"
+                        + "2,\"Depp, Jr.\",\"Jo \"\"Jonny\"\"\"\r\n"
+                        + "\n"
+                        + "3,\"Pot\nter\",Harry"));
+
+        CustomerCsvReader.Row first = reader.next();
+        assertEquals(2, first.getLineNumber());
+        assertEquals("Akash", first.getCustomer().getFirstName());
+        assertEquals("Jagdale", first.getCustomer().getLastName());
+
+        CustomerCsvReader.Row second = reader.next();
+        assertEquals("Jo \"Jonny\"", second.getCustomer().getFirstName());
+        assertEquals("Depp, Jr.", second.getCustomer().getLastName());
+
+        CustomerCsvReader.Row third = reader.next();
+        assertEquals(5, third.getLineNumber());
+        assertEquals("Pot\nter", third.getCustomer().getLastName());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void reportsRowsWithWrongFieldCount() throws Exception {
+        CustomerCsvReader reader = new CustomerCsvReader(new StringReader(
+                "firstName,lastName\nAkash\nJonny,Depp\n"));
+
+        CustomerCsvReader.Row bad = reader.next();
+        assertNull(bad.getCustomer());
+        assertEquals(2, bad.getLineNumber());
+        assertEquals("Expected 2 fields but found 1", bad.getError());
+
+        assertEquals("Depp", reader.next().getCustomer().getLastName());
+        assertNull(reader.next());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsHeaderWithoutNameColumns() throws Exception {
+        new CustomerCsvReader(new StringReader("name,surname\nAkash,Jagdale\n")).next();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnterminatedQuote() throws Exception {
+        new CustomerCsvReader(new StringReader("firstName,lastName\n\"Akash,Jagdale\n")).next();
+    }
+}
@@ -0,0 +1,123 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CustomerImportChunkDTO;
+import guru.springfamework.api.v1.model.CustomerImportDTO;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.repositories.CustomerRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CustomerImportServiceTest {
+
+    CustomerImportServiceImpl customerImportService;
+
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    List<List<String>> savedChunks = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(transactionManager.getTransaction(ArgumentMatchers.any()))
+                .thenReturn(Mockito.mock(TransactionStatus.class));
+        Mockito.doAnswer(invocation -> {
+            List<String> names = new ArrayList<>();
+            for (Customer customer : invocation.<List<Customer>>getArgument(0)) {
+                names.add(customer.getFirstName());
+            }
+            savedChunks.add(names);
+            return null;
+        }).when(customerRepository).insertAll(ArgumentMatchers.anyList());
+
+        customerImportService = new CustomerImportServiceImpl(
+                CustomerMapper.INSTANCE, customerRepository, transactionManager, 3, 2);
+    }
+
+    @Test
+    public void importCommitsFixedSizeChunks() {
+        CustomerImportDTO summary = customerImportService.importCustomers(new StringReader(
+                "firstName,lastName\n"
+                        + "Akash,Jagdale\n"
+                        + " ,Depp\n"
+                        + "Harry,Potter\n"
+                        + "Michael,Westen\n"
+                        + "Fiona\n"
+                        + "Sam,\n"
+                        + "Jesse,Porter\n"));
+
+        assertEquals(4, summary.getAccepted());
+        assertEquals(3, summary.getRejected());
+        assertNull(summary.getError());
+        assertEquals(3, summary.getChunks().size());
+
+        CustomerImportChunkDTO first = summary.getChunks().get(0);
+        assertEquals(1, first.getChunk());
+        assertEquals(2, first.getFirstLine());
+        assertEquals(4, first.getLastLine());
+        assertEquals(2, first.getAccepted());
+        assertEquals(1, first.getRejected());
+        assertEquals("firstName must not be blank", first.getErrors().get(0).getMessage());
+
+        CustomerImportChunkDTO second = summary.getChunks().get(1);
+        assertEquals(1, second.getAccepted());
+        assertEquals(2, second.getRejected());
+        // only the first two rejected rows are described
+        assertEquals(1, second.getErrors().size());
+        assertEquals(6, second.getErrors().get(0).getLine());
+
+        assertEquals(1, summary.getChunks().get(2).getAccepted());
+        assertEquals(3, savedChunks.size());
+        assertEquals("Jesse", savedChunks.get(2).get(0));
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void failedChunkIsRejectedAndImportContinues() {
+        Mockito.doThrow(new DataIntegrityViolationException("duplicate"))
+                .doNothing()
+                .when(customerRepository).insertAll(ArgumentMatchers.anyList());
+
+        CustomerImportDTO summary = customerImportService.importCustomers(new StringReader(
+                "firstName,lastName\nA,B\nC,D\nE,F\nG,H\n"));
+
+        assertEquals(1, summary.getAccepted());
+        assertEquals(3, summary.getRejected());
+        assertEquals("Chunk rolled back: duplicate", summary.getChunks().get(0).getErrors().get(0).getMessage());
+        Mockito.verify(transactionManager).rollback(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void brokenFileKeepsCommittedChunks() {
+        CustomerImportDTO summary = customerImportService.importCustomers(new StringReader(
+                "firstName,lastName\nA,B\nC,D\nE,F\nG,\"H\n"));
+
+        assertEquals(3, summary.getAccepted());
+        assertEquals(1, summary.getChunks().size());
+        assertEquals("Quoted field starting on line 5 is not terminated", summary.getError());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void missingHeaderIsBadRequest() {
+        customerImportService.importCustomers(new StringReader("Akash,Jagdale\n"));
+    }
+}
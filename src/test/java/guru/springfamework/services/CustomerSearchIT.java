@@ -0,0 +1,46 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CustomerSearchIT {
+
+    @Autowired
+    CustomerService customerService;
+
+    @Test
+    public void searchIndexIsBuiltAtStartupAndFollowsWrites() throws Exception {
+        List<CustomerDTO> bootstrapped = customerService.searchCustomers("jagd", 0, 10).getCustomers();
+        assertEquals(1, bootstrapped.size());
+        assertEquals("Akash", bootstrapped.get(0).getFirstName());
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("Fiona");
+        customerDTO.setLastName("Glenanne");
+        CustomerDTO saved = customerService.createNewCustomer(customerDTO);
+
+        assertEquals(saved.getId(), customerService.searchCustomers("glen", 0, 10).getCustomers().get(0).getId());
+
+        CustomerDTO patch = new CustomerDTO();
+        patch.setLastName("Westen");
+        customerService.patchCustomer(saved.getId(), patch);
+
+        assertTrue(customerService.searchCustomers("glen", 0, 10).getCustomers().isEmpty());
+        assertEquals(saved.getId(), customerService.searchCustomers("fiona west", 0, 10).getCustomers().get(0).getId());
+
+        customerService.deleteCustomerById(saved.getId());
+
+        assertTrue(customerService.searchCustomers("fiona", 0, 10).getCustomers().isEmpty());
+    }
+}
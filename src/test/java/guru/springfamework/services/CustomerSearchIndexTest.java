@@ -0,0 +1,150 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.domain.ChangeType;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CustomerSearchIndexTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    CustomerSearchIndex customerSearchIndex;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerSearchIndex = new CustomerSearchIndex(meterRegistry);
+
+        save(1L, "Akash", "Jagdale");
+        save(2L, "Michale", "Weston");
+        save(3L, "Sam", "Axe");
+        save(4L, "Jag", "Singh");
+        save(5L, "Ajay", "Bajaj");
+    }
+
+    @Test
+    public void substringMatchesAnywhereInAName() {
+        assertEquals(ids(5L), search("aja"));
+        assertEquals(ids(2L), search("EST"));
+    }
+
+    @Test
+    public void shortTermsMatchNamePrefixesOnly() {
+        assertEquals(ids(3L, 5L, 1L), search("a"));
+        assertEquals(ids(), search("x"));
+    }
+
+    @Test
+    public void rankedExactThenPrefixThenSubstring() {
+        save(6L, "Ravi", "Pajagopal");
+
+        assertEquals(ids(4L, 1L, 6L), search("jag"));
+    }
+
+    @Test
+    public void everyTermMustMatch() {
+        assertEquals(ids(1L), search("jag aka"));
+        assertEquals(ids(), search("jag weston"));
+    }
+
+    @Test
+    public void paginatesRankedResults() {
+        assertEquals(ids(3L, 5L), ids(customerSearchIndex.search("a", 0, 2)));
+        assertEquals(ids(1L), ids(customerSearchIndex.search("a", 2, 2)));
+        assertEquals(ids(), ids(customerSearchIndex.search("a", 4, 2)));
+    }
+
+    @Test
+    public void pagesOfACommonNameMatchTheFullRanking() {
+        for (long id = 10; id < 60; id++) {
+            save(id, "Common", "Name" + (id * 7 % 50));
+        }
+
+        List<Long> all = search("common");
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < all.size(); offset += 7) {
+            paged.addAll(ids(customerSearchIndex.search("common", offset, 7)));
+        }
+
+        assertEquals(50, all.size());
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void followsUpdatesAndDeletes() {
+        save(1L, "Akash", "Jones");
+        assertEquals(ids(4L), search("jag"));
+        assertEquals(ids(1L), search("jones"));
+
+        customerSearchIndex.apply(new CustomerChangedEvent(4L, "Jag", "Singh", ChangeType.DELETED));
+        assertEquals(ids(), search("jag"));
+        assertEquals(4, customerSearchIndex.size());
+    }
+
+    @Test
+    public void partialChangesKeepUnwrittenNames() {
+        customerSearchIndex.apply(new CustomerChangedEvent(1L, null, "Jones", ChangeType.PATCHED));
+
+        assertEquals(ids(1L), search("akash jones"));
+        assertEquals(ids(4L), search("jag"));
+    }
+
+    @Test
+    public void rebuildReplacesContentsAndKeepsConcurrentChanges() {
+        customerSearchIndex.rebuild(action -> {
+            action.accept(customer(7L, "Fiona", "Glenanne"));
+            // committed while the table was being streamed
+            save(8L, "Madeline", "Westen");
+        });
+
+        assertEquals(ids(7L), search("glen"));
+        assertEquals(ids(8L), search("westen"));
+        assertEquals(ids(), search("jagdale"));
+        assertEquals(2, customerSearchIndex.size());
+    }
+
+    @Test
+    public void reportsEstimatedMemory() {
+        double memory = meterRegistry.get(CustomerSearchIndex.MEMORY_GAUGE).gauge().value();
+        assertTrue(memory > 0);
+
+        customerSearchIndex.apply(new CustomerChangedEvent(1L, null, null, ChangeType.DELETED));
+        assertTrue(meterRegistry.get(CustomerSearchIndex.MEMORY_GAUGE).gauge().value() < memory);
+    }
+
+    private void save(Long id, String firstName, String lastName) {
+        customerSearchIndex.apply(new CustomerChangedEvent(id, firstName, lastName, ChangeType.UPDATED));
+    }
+
+    private List<Long> search(String query) {
+        return ids(customerSearchIndex.search(query, 0, 100));
+    }
+
+    private static List<Long> ids(List<CustomerDTO> customerDTOs) {
+        return customerDTOs.stream().map(CustomerDTO::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(Long... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static Customer customer(Long id, String firstName, String lastName) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        return customer;
+    }
+}
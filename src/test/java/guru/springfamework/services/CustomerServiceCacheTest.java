@@ -0,0 +1,87 @@
+package guru.springfamework.services;
+
+import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.config.CacheConfig;
+import guru.springfamework.domain.Customer;
+import guru.springfamework.repositories.CustomerRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CustomerServiceCacheTest {
+
+    public static final long ID = 1L;
+
+    @MockBean
+    CustomerRepository customerRepository;
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheManager.getCache(CacheConfig.CUSTOMERS).clear();
+
+        Mockito.when(customerRepository.findById(ID)).thenReturn(Optional.of(customer("Akash", "Jagdale")));
+    }
+
+    @Test
+    public void getCustomerByIdIsCached() {
+        CustomerDTO first = customerService.getCustomerById(ID);
+        CustomerDTO second = customerService.getCustomerById(ID);
+
+        assertSame(first, second);
+        Mockito.verify(customerRepository, Mockito.times(1)).findById(ID);
+    }
+
+    @Test
+    public void saveCustomerByDTOEvictsCache() {
+        customerService.getCustomerById(ID);
+
+        Mockito.when(customerRepository.upsert(ID, "Jonny", "Depp", true)).thenReturn(Optional.of(1L));
+        Mockito.when(customerRepository.findById(ID)).thenReturn(Optional.of(customer("Jonny", "Depp")));
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("Jonny");
+        customerDTO.setLastName("Depp");
+        customerService.saveCustomerByDTO(ID, customerDTO);
+
+        assertEquals("Jonny", customerService.getCustomerById(ID).getFirstName());
+        // the update itself reads nothing, so the final get reloads the customer
+        Mockito.verify(customerRepository, Mockito.times(2)).findById(ID);
+    }
+
+    @Test
+    public void deleteCustomerByIdEvictsCache() {
+        customerService.getCustomerById(ID);
+
+        customerService.deleteCustomerById(ID);
+        customerService.getCustomerById(ID);
+
+        Mockito.verify(customerRepository, Mockito.times(2)).findById(ID);
+    }
+
+    private Customer customer(String firstName, String lastName) {
+        Customer customer = new Customer();
+        customer.setId(ID);
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        return customer;
+    }
+}
@@ -1,25 +1,44 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CustomerBulkChangeDTO;
+import guru.springfamework.api.v1.model.CustomerBulkResultDTO;
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerField;
+import guru.springfamework.api.v1.model.CustomerListDTO;
 import guru.springfamework.bootstrap.Bootstrap;
+import guru.springfamework.controllers.v1.CustomerController;
 import guru.springfamework.domain.Customer;
 import guru.springfamework.repositories.CategoryRepository;
 import guru.springfamework.repositories.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Created by jt on 10/3/17.
@@ -34,6 +53,12 @@ public class CustomerServiceIT {
     @Autowired
     CategoryRepository categoryRepository;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
     CustomerService customerService;
 
     @Before
@@ -42,10 +67,12 @@ public class CustomerServiceIT {
         System.out.println(customerRepository.findAll().size());
 
         //setup data for testing
-        Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository);
+        Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository, null, "demo", "", 0, 0);
         bootstrap.run(); //load data
 
-        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository,
+                new CustomerSearchIndex(meterRegistry), meterRegistry, eventPublisher);
     }
 
     @Test
@@ -97,6 +124,186 @@ public class CustomerServiceIT {
         assertThat(originalLastName, not(equalTo(updatedCustomer.getLastName())));
     }
 
+    @Test
+    public void patchCustomerIsConditionalOnVersion() throws Exception {
+        long id = getCustomerIdValue();
+        Long version = customerRepository.findById(id).get().getVersion();
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("UpdatedName");
+        customerDTO.setVersion(version);
+
+        CustomerDTO patchedDTO = customerService.patchCustomer(id, customerDTO);
+
+        assertEquals(Long.valueOf(version + 1), patchedDTO.getVersion());
+        assertNull(patchedDTO.getLastName());
+        assertEquals(patchedDTO.getVersion(), customerRepository.findById(id).get().getVersion());
+
+        try {
+            customerService.patchCustomer(id, customerDTO);
+            fail("Stale version was patched");
+        } catch (ObjectOptimisticLockingFailureException expected) {
+            // customerDTO still carries the old version
+        }
+
+        try {
+            customerService.patchCustomer(Long.MAX_VALUE, customerDTO);
+            fail("Missing customer was patched");
+        } catch (ResourceNotFoundException expected) {
+            // no row to update
+        }
+    }
+
+    @Test
+    public void saveCustomerByDTOUpdatesOrCreatesUnderThePathId() throws Exception {
+        long id = getCustomerIdValue();
+        Long version = customerRepository.findById(id).get().getVersion();
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("Fiona");
+
+        CustomerDTO updatedDTO = customerService.saveCustomerByDTO(id, customerDTO);
+        assertEquals(Long.valueOf(version + 1), updatedDTO.getVersion());
+        Customer updatedCustomer = customerRepository.findById(id).get();
+        assertEquals("Fiona", updatedCustomer.getFirstName());
+        assertNull(updatedCustomer.getLastName());
+        assertEquals(Long.valueOf(version + 1), updatedCustomer.getVersion());
+
+        customerRepository.deleteById(id);
+        CustomerDTO createdDTO = customerService.saveCustomerByDTO(id, customerDTO);
+        assertEquals(Long.valueOf(0L), createdDTO.getVersion());
+        assertEquals("Fiona", customerRepository.findById(id).get().getFirstName());
+
+        customerDTO.setVersion(0L);
+        assertEquals(Long.valueOf(1L), customerService.saveCustomerByDTO(id, customerDTO).getVersion());
+
+        try {
+            customerService.saveCustomerByDTO(id, customerDTO);
+            fail("Stale version was replaced");
+        } catch (ObjectOptimisticLockingFailureException expected) {
+            // customerDTO still carries version 0
+        }
+
+        customerDTO.setVersion(null);
+        long missingId = 1_000_000L;
+        try {
+            customerService.saveCustomerByDTO(missingId, customerDTO, false);
+            fail("Missing customer was created");
+        } catch (ObjectOptimisticLockingFailureException expected) {
+            assertFalse(customerRepository.existsById(missingId));
+        }
+    }
+
+    @Test
+    public void idsCreatedByPutAreNeverGeneratedAgain() throws Exception {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName("Fiona");
+
+        // one id ahead of the generator, still inside the block it holds in memory, and one far beyond
+        long generatedId = customerService.createNewCustomer(customerDTO).getId();
+        assertEquals(Long.valueOf(0L), customerService.saveCustomerByDTO(generatedId + 1, customerDTO).getVersion());
+        assertEquals(Long.valueOf(0L), customerService.saveCustomerByDTO(1_000_000L, customerDTO).getVersion());
+
+        Long nextId = customerService.createNewCustomer(customerDTO).getId();
+        customerRepository.flush();
+        assertThat(nextId, greaterThan(1_000_000L));
+    }
+
+    @Test
+    public void bulkPatchAndDeleteRunAsSetBasedStatements() throws Exception {
+        List<Customer> customers = customerRepository.findAll();
+        Long first = customers.get(0).getId();
+        Long second = customers.get(1).getId();
+
+        CustomerDTO patch = new CustomerDTO();
+        patch.setLastName("Bulk");
+
+        List<CustomerBulkResultDTO> patched = customerService.patchCustomers(
+                new CustomerBulkChangeDTO(Arrays.asList(second, first, Long.MAX_VALUE), null, patch));
+
+        assertEquals(Arrays.asList(second, first, Long.MAX_VALUE),
+                patched.stream().map(CustomerBulkResultDTO::getId).collect(Collectors.toList()));
+        assertEquals(CustomerBulkResultDTO.Outcome.NOT_FOUND, patched.get(2).getOutcome());
+        assertEquals(customers.get(1).getFirstName(), patched.get(0).getCustomer().getFirstName());
+        assertEquals(Long.valueOf(customers.get(1).getVersion() + 1), patched.get(0).getCustomer().getVersion());
+        assertEquals("Bulk", customerRepository.findById(first).get().getLastName());
+
+        try {
+            customerRepository.deleteAllWhere(Collections.singletonMap("lastName", "Bulk"), 1);
+            fail("Selection over the limit was deleted");
+        } catch (IncorrectResultSizeDataAccessException expected) {
+            assertEquals(customers.size(), customerRepository.count());
+        }
+
+        List<CustomerBulkResultDTO> deleted = customerService.deleteCustomers(
+                new CustomerBulkChangeDTO(null, patch, null));
+
+        assertEquals(Arrays.asList(first, second),
+                deleted.stream().map(CustomerBulkResultDTO::getId).collect(Collectors.toList()));
+        assertEquals(customers.size() - 2, customerRepository.count());
+    }
+
+    @Test
+    public void getCustomerPageFollowsCursor() throws Exception {
+        List<Customer> customers = customerRepository.findAll();
+        Long secondId = customers.get(1).getId();
+
+        CustomerListDTO firstPage = customerService.getCustomerPage(null, 2);
+        assertEquals(2, firstPage.getCustomers().size());
+        assertEquals(CustomerController.BASE_URL + "?after=" + secondId + "&limit=2", firstPage.getNextPageUrl());
+
+        CustomerListDTO secondPage = customerService.getCustomerPage(secondId, 2);
+        assertEquals(customers.size() - 2, secondPage.getCustomers().size());
+    }
+
+    @Test
+    public void sparseFieldsetReadsOnlySelectedColumns() throws Exception {
+        List<Customer> customers = customerRepository.findAll();
+        Long firstId = customers.get(0).getId();
+
+        Customer partial = customerRepository.findByIdWithAttributes(firstId, Collections.singleton("lastName")).get();
+        assertEquals(customers.get(0).getLastName(), partial.getLastName());
+        assertEquals(firstId, partial.getId());
+        assertNotNull(partial.getVersion());
+        assertNull(partial.getFirstName());
+
+        CustomerListDTO page = customerService.getCustomerPage(null, 2, EnumSet.of(CustomerField.FIRST_NAME));
+        assertEquals(customers.get(1).getFirstName(), page.getCustomers().get(1).getFirstName());
+        assertNull(page.getCustomers().get(1).getLastName());
+        assertNull(page.getCustomers().get(1).getCustomerUrl());
+        assertEquals(CustomerController.BASE_URL + "?after=" + customers.get(1).getId() + "&limit=2&fields=firstName",
+                page.getNextPageUrl());
+    }
+
+    @Test
+    public void exportCustomersVisitsEveryRow() throws Exception {
+        List<CustomerDTO> exported = new ArrayList<>();
+
+        customerService.exportCustomers(exported::add);
+
+        assertEquals(customerRepository.count(), exported.size());
+        assertNotNull(exported.get(0).getCustomerUrl());
+    }
+
+    @Test
+    public void createNewCustomersInOneBatch() throws Exception {
+        long before = customerRepository.count();
+
+        List<CustomerDTO> customerDTOs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setFirstName("First" + i);
+            customerDTO.setLastName("Last" + i);
+            customerDTOs.add(customerDTO);
+        }
+
+        List<CustomerDTO> saved = customerService.createNewCustomers(customerDTOs);
+
+        assertEquals(120, saved.size());
+        assertEquals(120, saved.stream().map(CustomerDTO::getCustomerUrl).distinct().count());
+        assertEquals(before + 120, customerRepository.count());
+    }
+
     private Long getCustomerIdValue() {
         List<Customer> customers = customerRepository.findAll();
 
@@ -1,21 +1,41 @@
 package guru.springfamework.services;
 
 import guru.springfamework.api.v1.mapper.CustomerMapper;
+import guru.springfamework.api.v1.model.CustomerBulkChangeDTO;
+import guru.springfamework.api.v1.model.CustomerBulkResultDTO;
 import guru.springfamework.api.v1.model.CustomerDTO;
+import guru.springfamework.api.v1.model.CustomerField;
+import guru.springfamework.api.v1.model.CustomerListDTO;
+import guru.springfamework.api.v1.model.CustomerLookupDTO;
+import guru.springfamework.controllers.v1.CustomerController;
+import guru.springfamework.domain.ChangeType;
 import guru.springfamework.domain.Customer;
+import guru.springfamework.domain.CustomerChangedEvent;
 import guru.springfamework.repositories.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 public class CustomerServiceTest {
 
@@ -24,17 +44,22 @@ public class CustomerServiceTest {
     public static final String LAST_NAME = "Jagdale";
     public static final long ID = 1L;
 
-    CustomerService customerService;
+    CustomerServiceImpl customerService;
 
     @Mock
     CustomerRepository customerRepository;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository,
+                new CustomerSearchIndex(meterRegistry), meterRegistry, eventPublisher);
     }
 
     @Test
@@ -48,6 +73,94 @@ public class CustomerServiceTest {
         assertEquals(3, customerDTOS.size());
     }
 
+    @Test
+    public void getCustomerPage() {
+        List<Customer> customers = Arrays.asList(customerWithId(11L), customerWithId(12L), customerWithId(13L));
+
+        Mockito.when(customerRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 3)))
+                .thenReturn(customers);
+
+        CustomerListDTO page = customerService.getCustomerPage(10L, 2);
+
+        assertEquals(2, page.getCustomers().size());
+        assertEquals("/api/v1/customers/12", page.getCustomers().get(1).getCustomerUrl());
+        assertEquals("/api/v1/customers?after=12&limit=2", page.getNextPageUrl());
+    }
+
+    @Test
+    public void getCustomerPageWithFields() {
+        Customer customer = new Customer();
+        customer.setId(11L);
+        customer.setLastName(LAST_NAME);
+
+        Mockito.when(customerRepository.findPageWithAttributes(10L, 2, Collections.singleton("lastName")))
+                .thenReturn(Arrays.asList(customer, customerWithId(12L)));
+
+        CustomerListDTO page = customerService.getCustomerPage(10L, 1, EnumSet.of(CustomerField.LAST_NAME));
+
+        assertEquals(1, page.getCustomers().size());
+        assertEquals(LAST_NAME, page.getCustomers().get(0).getLastName());
+        assertNull(page.getCustomers().get(0).getCustomerUrl());
+        assertEquals("/api/v1/customers?after=11&limit=1&fields=lastName", page.getNextPageUrl());
+        Mockito.verify(customerRepository, Mockito.never())
+                .findByIdGreaterThanOrderByIdAsc(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void getCustomerByIdWithFields() {
+        Customer customer = new Customer();
+        customer.setId(ID);
+        customer.setFirstName(FIRST_NAME);
+        customer.setVersion(2L);
+
+        Set<String> attributes = new HashSet<>(Arrays.asList("firstName", "id"));
+        Mockito.when(customerRepository.findByIdWithAttributes(ID, attributes)).thenReturn(Optional.of(customer));
+
+        CustomerDTO customerDTO = customerService.getCustomerById(ID,
+                EnumSet.of(CustomerField.FIRST_NAME, CustomerField.CUSTOMER_URL));
+
+        assertEquals(FIRST_NAME, customerDTO.getFirstName());
+        assertNull(customerDTO.getLastName());
+        assertEquals("/api/v1/customers/1", customerDTO.getCustomerUrl());
+        assertEquals(Long.valueOf(2L), customerDTO.getVersion());
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getCustomerByIdWithFieldsNotFound() {
+        Mockito.when(customerRepository.findByIdWithAttributes(ArgumentMatchers.anyLong(), ArgumentMatchers.anySet()))
+                .thenReturn(Optional.empty());
+
+        customerService.getCustomerById(ID, EnumSet.of(CustomerField.LAST_NAME));
+    }
+
+    @Test
+    public void getCustomerByIdWithoutFieldsReadsAllFields() {
+        Customer customer = customerWithId(ID);
+        customer.setFirstName(FIRST_NAME);
+        customer.setLastName(LAST_NAME);
+        Mockito.when(customerRepository.findById(ID)).thenReturn(Optional.of(customer));
+
+        CustomerDTO customerDTO = customerService.getCustomerById(ID, null);
+
+        assertEquals(FIRST_NAME, customerDTO.getFirstName());
+        assertEquals(LAST_NAME, customerDTO.getLastName());
+        Mockito.verify(customerRepository, Mockito.never())
+                .findByIdWithAttributes(ArgumentMatchers.anyLong(), ArgumentMatchers.anySet());
+    }
+
+    @Test
+    public void getCustomerLastPage() {
+        List<Customer> customers = Arrays.asList(customerWithId(1L), customerWithId(2L));
+
+        Mockito.when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3)))
+                .thenReturn(customers);
+
+        CustomerListDTO page = customerService.getCustomerPage(null, 2);
+
+        assertEquals(2, page.getCustomers().size());
+        assertNull(page.getNextPageUrl());
+    }
+
     @Test
     public void getCustomerById() {
         Customer customer = new Customer();
@@ -63,6 +176,31 @@ public class CustomerServiceTest {
         assertEquals(FIRST_NAME, customerDTO.getFirstName());
     }
 
+    @Test
+    public void getCustomersByIdsKeepsRequestOrder() {
+        Mockito.when(customerRepository.findAllById(ArgumentMatchers.anyIterable()))
+                .thenReturn(Arrays.asList(customerWithId(1L), customerWithId(3L)));
+
+        List<CustomerLookupDTO> lookups = customerService.getCustomersByIds(Arrays.asList(3L, 2L, 1L));
+
+        assertEquals(3, lookups.size());
+        assertEquals("/api/v1/customers/3", lookups.get(0).getCustomer().getCustomerUrl());
+        assertEquals(Long.valueOf(2L), lookups.get(1).getId());
+        assertFalse(lookups.get(1).isFound());
+        assertNull(lookups.get(1).getCustomer());
+        assertEquals("/api/v1/customers/1", lookups.get(2).getCustomer().getCustomerUrl());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void getCustomersByIdsTooMany() {
+        customerService.getCustomersByIds(Collections.nCopies(CustomerServiceImpl.MAX_MULTI_GET_SIZE + 1, ID));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void getCustomersByIdsWithBlankId() {
+        customerService.getCustomersByIds(Arrays.asList(1L, null, 3L));
+    }
+
     @Test
     public void createNewCustomer() {
         CustomerDTO customerDTO = new CustomerDTO();
@@ -74,7 +212,7 @@ public class CustomerServiceTest {
         savedCustomer.setLastName(customerDTO.getLastName());
         savedCustomer.setId(ID);
 
-        Mockito.when(customerRepository.save(ArgumentMatchers.any(Customer.class))).thenReturn(savedCustomer);
+        Mockito.when(customerRepository.saveAndFlush(ArgumentMatchers.any(Customer.class))).thenReturn(savedCustomer);
 
         CustomerDTO savedDTO = customerService.createNewCustomer(customerDTO);
 
@@ -84,22 +222,207 @@ public class CustomerServiceTest {
     }
 
     @Test
-    public void saveCustomerByDTO() {
+    @SuppressWarnings("unchecked")
+    public void createNewCustomers() {
         CustomerDTO customerDTO = new CustomerDTO();
         customerDTO.setFirstName(FIRST_NAME);
         customerDTO.setLastName(LAST_NAME);
 
-        Customer savedCustomer = new Customer();
-        savedCustomer.setFirstName(customerDTO.getFirstName());
-        savedCustomer.setLastName(customerDTO.getLastName());
-        savedCustomer.setId(ID);
+        Customer savedCustomer = customerWithId(ID);
+        savedCustomer.setFirstName(FIRST_NAME);
+
+        Mockito.when(customerRepository.saveAll(ArgumentMatchers.anyIterable())).thenReturn(Arrays.asList(savedCustomer));
+
+        List<CustomerDTO> savedDTOS = customerService.createNewCustomers(Arrays.asList(customerDTO));
+
+        assertEquals(1, savedDTOS.size());
+        assertEquals(FIRST_NAME, savedDTOS.get(0).getFirstName());
+        assertEquals("/api/v1/customers/1", savedDTOS.get(0).getCustomerUrl());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void createNewCustomersTooMany() {
+        customerService.createNewCustomers(Collections.nCopies(CustomerServiceImpl.MAX_BULK_SIZE + 1, new CustomerDTO()));
+    }
+
+    @Test
+    public void saveCustomerByDTO() {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+        customerDTO.setLastName(LAST_NAME);
+        customerDTO.setVersion(1L);
 
-        Mockito.when(customerRepository.save(ArgumentMatchers.any(Customer.class))).thenReturn(savedCustomer);
+        Mockito.when(customerRepository.updateAttributes(ArgumentMatchers.eq(ID), ArgumentMatchers.eq(1L),
+                ArgumentMatchers.anyMap())).thenReturn(1);
 
         CustomerDTO savedDTO = customerService.saveCustomerByDTO(1L, customerDTO);
 
         assertEquals(customerDTO.getFirstName(), savedDTO.getFirstName());
+        assertEquals(Long.valueOf(2L), savedDTO.getVersion());
         assertEquals("/api/v1/customers/1", savedDTO.getCustomerUrl());
+        Mockito.verify(customerRepository, Mockito.never()).findById(ArgumentMatchers.anyLong());
+        Mockito.verify(customerRepository, Mockito.never()).upsert(ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyBoolean());
+        Mockito.verify(eventPublisher).publishEvent(new CustomerChangedEvent(ID, FIRST_NAME, LAST_NAME, ChangeType.UPDATED));
+    }
+
+    @Test
+    public void saveCustomerByDTOWithoutVersionReturnsTheMergedVersion() {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+
+        Mockito.when(customerRepository.upsert(ID, FIRST_NAME, null, true)).thenReturn(Optional.of(4L));
+
+        CustomerDTO savedDTO = customerService.saveCustomerByDTO(ID, customerDTO);
+
+        assertEquals(Long.valueOf(4L), savedDTO.getVersion());
+        Mockito.verify(eventPublisher).publishEvent(new CustomerChangedEvent(ID, FIRST_NAME, null, ChangeType.UPDATED));
+    }
+
+    @Test
+    public void saveCustomerByDTOCreatesMissingCustomerUnderItsId() {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+
+        Mockito.when(customerRepository.upsert(ID, FIRST_NAME, null, true)).thenReturn(Optional.of(0L));
+
+        CustomerDTO savedDTO = customerService.saveCustomerByDTO(ID, customerDTO);
+
+        assertEquals(Long.valueOf(0L), savedDTO.getVersion());
+        Mockito.verify(eventPublisher).publishEvent(new CustomerChangedEvent(ID, FIRST_NAME, null, ChangeType.CREATED));
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void saveCustomerByDTOWithoutCreateNeedsAnExistingCustomer() {
+        Mockito.when(customerRepository.upsert(ID, FIRST_NAME, null, false)).thenReturn(Optional.empty());
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+
+        customerService.saveCustomerByDTO(ID, customerDTO, false);
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void saveCustomerByDTOWithStaleVersion() {
+        Mockito.when(customerRepository.updateAttributes(ArgumentMatchers.eq(ID), ArgumentMatchers.eq(1L),
+                ArgumentMatchers.anyMap())).thenReturn(0);
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+        customerDTO.setLastName(LAST_NAME);
+        customerDTO.setVersion(1L);
+
+        customerService.saveCustomerByDTO(ID, customerDTO);
+    }
+
+    @Test
+    public void patchCustomerUpdatesOnlySuppliedNames() {
+        Mockito.when(customerRepository.updateAttributes(ID, 3L, Collections.singletonMap("firstName", FIRST_NAME)))
+                .thenReturn(1);
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+        customerDTO.setVersion(3L);
+
+        CustomerDTO patchedDTO = customerService.patchCustomer(ID, customerDTO);
+
+        assertEquals(FIRST_NAME, patchedDTO.getFirstName());
+        assertNull(patchedDTO.getLastName());
+        assertEquals(Long.valueOf(4L), patchedDTO.getVersion());
+        assertEquals("/api/v1/customers/1", patchedDTO.getCustomerUrl());
+        Mockito.verify(customerRepository, Mockito.never()).findById(ArgumentMatchers.anyLong());
+        Mockito.verify(eventPublisher).publishEvent(new CustomerChangedEvent(ID, FIRST_NAME, null, ChangeType.PATCHED));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void patchMissingCustomer() {
+        Mockito.when(customerRepository.updateAttributes(ArgumentMatchers.eq(ID), ArgumentMatchers.isNull(),
+                ArgumentMatchers.anyMap())).thenReturn(0);
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setLastName(LAST_NAME);
+
+        customerService.patchCustomer(ID, customerDTO);
+    }
+
+    @Test(expected = ObjectOptimisticLockingFailureException.class)
+    public void patchCustomerWithStaleVersion() {
+        Mockito.when(customerRepository.updateAttributes(ArgumentMatchers.eq(ID), ArgumentMatchers.eq(1L),
+                ArgumentMatchers.anyMap())).thenReturn(0);
+        Mockito.when(customerRepository.existsById(ID)).thenReturn(true);
+
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstName(FIRST_NAME);
+        customerDTO.setVersion(1L);
+
+        customerService.patchCustomer(ID, customerDTO);
+    }
+
+    @Test
+    public void patchCustomersReportsEveryRequestedId() {
+        Customer updated = customerWithId(7L);
+        updated.setFirstName(FIRST_NAME);
+        updated.setLastName(LAST_NAME);
+        updated.setVersion(2L);
+
+        CustomerDTO patch = new CustomerDTO();
+        patch.setLastName(LAST_NAME);
+
+        Mockito.when(customerRepository.updateAllWhere(
+                Collections.singletonMap("id", new HashSet<>(Arrays.asList(7L, 8L))),
+                Collections.singletonMap("lastName", LAST_NAME), CustomerServiceImpl.MAX_BULK_SIZE))
+                .thenReturn(Collections.singletonList(updated));
+
+        List<CustomerBulkResultDTO> results = customerService.patchCustomers(
+                new CustomerBulkChangeDTO(Arrays.asList(8L, 7L, 8L), null, patch));
+
+        assertEquals(2, results.size());
+        assertEquals(new CustomerBulkResultDTO(8L, CustomerBulkResultDTO.Outcome.NOT_FOUND, null), results.get(0));
+        assertEquals(CustomerBulkResultDTO.Outcome.UPDATED, results.get(1).getOutcome());
+        assertEquals(Long.valueOf(2L), results.get(1).getCustomer().getVersion());
+        Mockito.verify(eventPublisher).publishEvent(new CustomerChangedEvent(7L, null, LAST_NAME, ChangeType.PATCHED));
+    }
+
+    @Test
+    public void deleteCustomersByFilter() {
+        CustomerDTO filter = new CustomerDTO();
+        filter.setFirstName(FIRST_NAME);
+
+        Mockito.when(customerRepository.deleteAllWhere(Collections.singletonMap("firstName", FIRST_NAME),
+                CustomerServiceImpl.MAX_BULK_SIZE))
+                .thenReturn(Arrays.asList(customerWithId(1L), customerWithId(4L)));
+
+        List<CustomerBulkResultDTO> results = customerService.deleteCustomers(new CustomerBulkChangeDTO(null, filter, null));
+
+        assertEquals(Arrays.asList(
+                new CustomerBulkResultDTO(1L, CustomerBulkResultDTO.Outcome.DELETED, null),
+                new CustomerBulkResultDTO(4L, CustomerBulkResultDTO.Outcome.DELETED, null)), results);
+        Mockito.verify(eventPublisher).publishEvent(new CustomerChangedEvent(4L, null, null, ChangeType.DELETED));
+    }
+
+    @Test
+    public void bulkChangeRefusesFilterMatchingTooManyCustomers() {
+        CustomerDTO filter = new CustomerDTO();
+        filter.setFirstName(FIRST_NAME);
+
+        Mockito.when(customerRepository.deleteAllWhere(Collections.singletonMap("firstName", FIRST_NAME),
+                CustomerServiceImpl.MAX_BULK_SIZE))
+                .thenThrow(new IncorrectResultSizeDataAccessException(CustomerServiceImpl.MAX_BULK_SIZE));
+
+        try {
+            customerService.deleteCustomers(new CustomerBulkChangeDTO(null, filter, null));
+            fail("Oversized filter was applied");
+        } catch (BadRequestException expected) {
+            Mockito.verifyZeroInteractions(eventPublisher);
+        }
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void bulkChangeNeedsExactlyOneSelection() {
+        CustomerDTO filter = new CustomerDTO();
+        filter.setFirstName(FIRST_NAME);
+
+        customerService.deleteCustomers(new CustomerBulkChangeDTO(Collections.singletonList(ID), filter, null));
     }
 
     @Test
@@ -108,4 +431,34 @@ public class CustomerServiceTest {
 
         Mockito.verify(customerRepository, Mockito.times(1)).deleteById(ArgumentMatchers.anyLong());
     }
+
+    @Test
+    public void searchCustomersPaginatesIndexedChanges() {
+        customerService.onCustomerChanged(new CustomerChangedEvent(1L, "Akash", "Jagdale", ChangeType.CREATED));
+        customerService.onCustomerChanged(new CustomerChangedEvent(2L, "Jag", "Singh", ChangeType.CREATED));
+        customerService.onCustomerChanged(new CustomerChangedEvent(3L, "Sam", "Axe", ChangeType.CREATED));
+
+        CustomerListDTO firstPage = customerService.searchCustomers("Jag", 0, 1);
+
+        assertEquals(1, firstPage.getCustomers().size());
+        assertEquals(Long.valueOf(2L), firstPage.getCustomers().get(0).getId());
+        assertEquals(CustomerController.BASE_URL + "?q=Jag&offset=1&limit=1", firstPage.getNextPageUrl());
+
+        CustomerListDTO secondPage = customerService.searchCustomers("Jag", 1, 1);
+
+        assertEquals(Long.valueOf(1L), secondPage.getCustomers().get(0).getId());
+        assertNull(secondPage.getNextPageUrl());
+        Mockito.verifyZeroInteractions(customerRepository);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void searchCustomersRejectsBlankQuery() {
+        customerService.searchCustomers("  ", 0, 10);
+    }
+
+    private Customer customerWithId(Long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package guru.springfamework.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springfamework.api.v1.model.CustomerDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IdempotentRequestStoreTest {
+
+    IdempotentRequestStore idempotentRequestStore;
+
+    CustomerDTO request;
+
+    @Before
+    public void setUp() {
+        idempotentRequestStore = new IdempotentRequestStore(
+                new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+        request = new CustomerDTO();
+        request.setFirstName("Joe");
+        request.setLastName("Newman");
+    }
+
+    @Test
+    public void concurrentDuplicatesShareOneExecution() {
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+
+        CompletableFuture<String> first = idempotentRequestStore.execute("key", request, () -> {
+            executions.incrementAndGet();
+            return inFlight;
+        });
+        CompletableFuture<String> duplicate = idempotentRequestStore.execute("key", request, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture("second");
+        });
+
+        assertSame(first, duplicate);
+        assertFalse(duplicate.isDone());
+
+        inFlight.complete("first");
+
+        assertEquals("first", duplicate.join());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void failedExecutionIsForgotten() {
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("database down"));
+
+        assertTrue(idempotentRequestStore.execute("key", request, () -> failed).isCompletedExceptionally());
+
+        CompletableFuture<String> retry = idempotentRequestStore.execute(
+                "key", request, () -> CompletableFuture.completedFuture("created"));
+
+        assertEquals("created", retry.join());
+    }
+
+    @Test(expected = IdempotencyKeyReuseException.class)
+    public void keyReusedWithDifferentRequest() {
+        idempotentRequestStore.execute("key", request, () -> CompletableFuture.completedFuture("created"));
+
+        CustomerDTO otherRequest = new CustomerDTO();
+        otherRequest.setFirstName("Someone");
+
+        idempotentRequestStore.execute("key", otherRequest, () -> CompletableFuture.completedFuture("other"));
+    }
+}
@@ -0,0 +1,110 @@
+package guru.springfamework.services;
+
+import guru.springfamework.config.MetricsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    SimpleMeterRegistry meterRegistry;
+
+    SingleFlight<Long, String> singleFlight;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    public void concurrentCallersShareOneExecution() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return "customer";
+            })));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            while (coalesced() < CALLERS - 1) {
+                Thread.sleep(1);
+            }
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("customer", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, (long) meterRegistry.get(MetricsConfig.SINGLE_FLIGHT_COUNTER)
+                .tag("result", "executed").counter().count());
+    }
+
+    @Test
+    public void completedCallIsNotReused() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "load " + loads.incrementAndGet());
+
+        assertEquals("load 2", singleFlight.execute(1L, () -> "load " + loads.incrementAndGet()));
+        assertEquals(0, coalesced());
+    }
+
+    @Test
+    public void failureIsRethrownAndForgotten() {
+        try {
+            singleFlight.execute(1L, () -> {
+                throw new ResourceNotFoundException();
+            });
+            fail("Expected ResourceNotFoundException");
+        } catch (ResourceNotFoundException expected) {
+            // the next call runs its own load
+        }
+
+        assertEquals("found", singleFlight.execute(1L, () -> "found"));
+    }
+
+    private long coalesced() {
+        return (long) meterRegistry.get(MetricsConfig.SINGLE_FLIGHT_COUNTER)
+                .tag("result", "coalesced").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}